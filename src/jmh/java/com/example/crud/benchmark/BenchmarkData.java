@@ -0,0 +1,39 @@
+package com.example.crud.benchmark;
+
+import com.example.crud.dto.ProductDTO;
+import com.example.crud.entity.Product;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Deterministic fixtures, so two runs always measure the same data.
+final class BenchmarkData {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    private BenchmarkData() {
+    }
+
+    static Product product(long i) {
+        return new Product(i, "Product " + i, 1.0f + (i % 1000) / 10.0f, START.plusDays(i % 365));
+    }
+
+    static ProductDTO productDto(long i) {
+        return new ProductDTO("Product " + i, 1.0f + (i % 1000) / 10.0f, START.plusDays(i % 365));
+    }
+
+    static List<Product> products(int size) {
+        List<Product> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            products.add(product(i + 1));
+        return products;
+    }
+
+    static List<ProductDTO> productDtos(int size) {
+        List<ProductDTO> productDTOs = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            productDTOs.add(productDto(i + 1));
+        return productDTOs;
+    }
+}
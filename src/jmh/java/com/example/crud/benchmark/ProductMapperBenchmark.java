@@ -0,0 +1,77 @@
+package com.example.crud.benchmark;
+
+import com.example.crud.dto.ProductDTO;
+import com.example.crud.entity.Product;
+import com.example.crud.mapper.imp.GeneratedProductMapper;
+import com.example.crud.mapper.imp.ProductMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMapperBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private final ProductMapper productMapper = new ProductMapper();
+    private final GeneratedProductMapper generatedProductMapper = GeneratedProductMapper.INSTANCE;
+    private Product product;
+    private ProductDTO productDTO;
+    private List<Product> products;
+    private List<ProductDTO> productDTOs;
+
+    @Setup
+    public void setUp() {
+        product = BenchmarkData.product(1);
+        productDTO = BenchmarkData.productDto(1);
+        products = BenchmarkData.products(size);
+        productDTOs = BenchmarkData.productDtos(size);
+    }
+
+    @Benchmark
+    public ProductDTO toDto() {
+        return productMapper.toDto(product);
+    }
+
+    @Benchmark
+    public Product toEntity() {
+        return productMapper.toEntity(productDTO);
+    }
+
+    @Benchmark
+    public List<ProductDTO> toDtos() {
+        return productMapper.toDtos(products);
+    }
+
+    @Benchmark
+    public List<Product> toEntities() {
+        return productMapper.toEntities(productDTOs);
+    }
+
+    @Benchmark
+    public List<ProductDTO> generatedToDtos() {
+        return generatedProductMapper.toDtos(products);
+    }
+
+    @Benchmark
+    public List<Product> generatedToEntities() {
+        return generatedProductMapper.toEntities(productDTOs);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.crud.benchmark;
+
+import com.example.crud.CrudApplication;
+import com.example.crud.dto.ProductDTO;
+import com.example.crud.dto.ProductPageDTO;
+import com.example.crud.service.KeysetPages;
+import com.example.crud.service.ProductBatchService;
+import com.example.crud.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProductService against an embedded H2 database, with the whole Spring context.
+ * cacheType=none measures the database path, caffeine the usual configuration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    private static final int PRODUCTS = 10_000;
+
+    @Param({"none", "caffeine"})
+    private String cacheType;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CrudApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.cache.type=" + cacheType,
+                        "--logging.level.root=warn");
+        productService = context.getBean(ProductService.class);
+        context.getBean(ProductBatchService.class).createProducts(BenchmarkData.productDtos(PRODUCTS).iterator());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, PRODUCTS + 1);
+    }
+
+    @Benchmark
+    public Optional<ProductDTO> getProductById() {
+        return productService.getProductById(randomId());
+    }
+
+    @Benchmark
+    public List<ProductDTO> getProductsByName() {
+        return productService.getProductsByName("Product " + randomId());
+    }
+
+    @Benchmark
+    public ProductPageDTO getProductsPage() {
+        return productService.getProductsPage(null, KeysetPages.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public ProductDTO updateProduct() {
+        long id = randomId();
+        return productService.updateProduct(id, BenchmarkData.productDto(id));
+    }
+
+    @Benchmark
+    public ProductDTO createProduct() {
+        return productService.createProduct(BenchmarkData.productDto(randomId()));
+    }
+}
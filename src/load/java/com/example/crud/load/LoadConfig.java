@@ -0,0 +1,36 @@
+package com.example.crud.load;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, read from system properties so they can be passed to mvn with -D.
+ *
+ * @param mix relative weight of each operation, "name:weight" pairs separated by commas
+ */
+public record LoadConfig(Duration warmup, Duration duration, int concurrency, int products, Map<String, Integer> mix) {
+
+    static final String DEFAULT_MIX = "get:40,name:10,search:10,page:15,list:1,stream:1,"
+            + "create:8,update:10,delete:2,batch-create:1,batch-update:1,batch-delete:1";
+
+    public static LoadConfig fromSystemProperties() {
+        return new LoadConfig(
+                Duration.ofSeconds(Long.getLong("load.warmup", 5)),
+                Duration.ofSeconds(Long.getLong("load.duration", 20)),
+                Integer.getInteger("load.concurrency", 32),
+                Integer.getInteger("load.products", 1000),
+                parseMix(System.getProperty("load.mix", DEFAULT_MIX)));
+    }
+
+    static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] nameAndWeight = entry.trim().split(":");
+            if (nameAndWeight.length != 2)
+                throw new IllegalArgumentException("Invalid load.mix entry: " + entry);
+            weights.put(nameAndWeight[0].trim(), Integer.parseInt(nameAndWeight[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.crud.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Closed-loop load generator: every worker sends one request at a time, picking the
+ * operation at random according to its weight. Each worker keeps its own histograms,
+ * they are only merged at the end, so recording never contends.
+ */
+public class LoadDriver {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    /**
+     * @param request builds the request to send, the random can be used to pick ids, names...
+     */
+    public record Operation(String name, int weight, Function<ThreadLocalRandom, HttpRequest> request) {
+    }
+
+    private record Recording(Map<String, Histogram> latencies, Map<String, Long> errors) {
+    }
+
+    private final HttpClient httpClient;
+
+    public LoadDriver(HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    public LoadReport run(LoadConfig config, List<Operation> operations) throws Exception {
+        List<Operation> enabled = operations.stream().filter(operation -> operation.weight() > 0).toList();
+        int totalWeight = enabled.stream().mapToInt(Operation::weight).sum();
+
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup().toNanos();
+        long end = measureFrom + config.duration().toNanos();
+
+        List<Future<Recording>> workers = new ArrayList<>(config.concurrency());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.concurrency(); i++)
+                workers.add(executor.submit(() -> work(enabled, totalWeight, measureFrom, end)));
+        }
+
+        Map<String, Histogram> latencies = new HashMap<>();
+        Map<String, Long> errors = new HashMap<>();
+        for (Future<Recording> worker : workers) {
+            Recording recording = worker.get();
+            recording.latencies().forEach((name, histogram) ->
+                    latencies.computeIfAbsent(name, key -> newHistogram()).add(histogram));
+            recording.errors().forEach((name, count) -> errors.merge(name, count, Long::sum));
+        }
+
+        double seconds = config.duration().toNanos() / 1e9;
+        List<LoadReport.EndpointStats> stats = enabled.stream()
+                .map(operation -> stats(operation.name(), latencies.getOrDefault(operation.name(), newHistogram()),
+                        errors.getOrDefault(operation.name(), 0L), seconds))
+                .toList();
+        return new LoadReport(config, seconds, stats);
+    }
+
+    private Recording work(List<Operation> operations, int totalWeight, long measureFrom, long end) {
+        Map<String, Histogram> latencies = new HashMap<>();
+        Map<String, Long> errors = new HashMap<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            Operation operation = pick(operations, totalWeight, random);
+            boolean failed;
+            try {
+                HttpResponse<Void> response = httpClient.send(operation.request().apply(random),
+                        HttpResponse.BodyHandlers.discarding());
+                failed = response.statusCode() >= 500;
+            } catch (Exception e) {
+                failed = true;
+            }
+            long finished = System.nanoTime();
+            if (now >= measureFrom) {
+                latencies.computeIfAbsent(operation.name(), key -> newHistogram())
+                        .recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(finished - now), HIGHEST_TRACKABLE_MICROS));
+                if (failed)
+                    errors.merge(operation.name(), 1L, Long::sum);
+            }
+        }
+        return new Recording(latencies, errors);
+    }
+
+    private static Operation pick(List<Operation> operations, int totalWeight, ThreadLocalRandom random) {
+        int value = random.nextInt(totalWeight);
+        for (Operation operation : operations) {
+            value -= operation.weight();
+            if (value < 0)
+                return operation;
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    private static Histogram newHistogram() {
+        return new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    }
+
+    private static LoadReport.EndpointStats stats(String name, Histogram histogram, long errors, double seconds) {
+        return new LoadReport.EndpointStats(name, histogram.getTotalCount(), errors,
+                histogram.getTotalCount() / seconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    static HttpClient defaultHttpClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.crud.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Result of a load run. Latencies are in milliseconds and throughput in requests per second.
+ */
+public record LoadReport(LoadConfig config, double seconds, List<EndpointStats> endpoints) {
+
+    public record EndpointStats(String operation, long requests, long errors, double throughput,
+                                double p50, double p99, double p999, double max) {
+    }
+
+    public long totalRequests() {
+        return endpoints.stream().mapToLong(EndpointStats::requests).sum();
+    }
+
+    public long totalErrors() {
+        return endpoints.stream().mapToLong(EndpointStats::errors).sum();
+    }
+
+    public String toTable() {
+        StringBuilder table = new StringBuilder(String.format("%-14s %9s %7s %10s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        for (EndpointStats stats : endpoints) {
+            table.append(String.format("%-14s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    stats.operation(), stats.requests(), stats.errors(), stats.throughput(),
+                    stats.p50(), stats.p99(), stats.p999(), stats.max()));
+        }
+        table.append(String.format("total %d requests, %d errors, %.1f req/s over %.1f s%n",
+                totalRequests(), totalErrors(), totalRequests() / seconds, seconds));
+        return table.toString();
+    }
+
+    public void write(Path path) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        new ObjectMapper().findAndRegisterModules()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .writeValue(path.toFile(), this);
+    }
+}
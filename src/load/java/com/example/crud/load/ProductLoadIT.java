@@ -0,0 +1,41 @@
+package com.example.crud.load;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs with mvn verify -Pload, see the load profile in pom.xml
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "products.admission.enabled=false", // measure the endpoints, not the limiter
+        "logging.level.root=warn"})
+class ProductLoadIT {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void productEndpointsUnderLoad() throws Exception {
+        LoadConfig config = LoadConfig.fromSystemProperties();
+        URI baseUri = URI.create("http://localhost:" + port);
+        HttpClient httpClient = LoadDriver.defaultHttpClient();
+
+        assertEquals(200, ProductOperations.seed(httpClient, baseUri, config.products()));
+
+        LoadReport report = new LoadDriver(httpClient)
+                .run(config, ProductOperations.all(baseUri, config.products(), config.mix()));
+
+        System.out.println(report.toTable());
+        report.write(Path.of(System.getProperty("load.report", "target/load-report.json")));
+        assertTrue(report.totalRequests() > 0);
+        assertEquals(0, report.totalErrors(), "Requests failed with 5xx or I/O errors");
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.crud.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * One operation per ProductController endpoint, or per ReactiveProductController one. Ids are picked among the seeded products,
+ * which get ids 1..products on a fresh database, so reads of deleted ones just answer 404.
+ */
+final class ProductOperations {
+
+    private ProductOperations() {
+    }
+
+    static List<LoadDriver.Operation> all(URI baseUri, int products, Map<String, Integer> mix) {
+        String base = baseUri.toString() + "/api/products";
+        return List.of(
+                operation(mix, "list", random -> get(base)),
+                operation(mix, "page", random -> get(base + "/page?size=20")),
+                operation(mix, "stream", random -> get(base + "/stream")),
+                operation(mix, "get", random -> get(base + "/" + id(random, products))),
+                operation(mix, "name", random -> get(base + "/name/" + name(id(random, products)))),
+                operation(mix, "search", random -> get(base + "/search?q=" + name(id(random, products / 10 + 1)))),
+                operation(mix, "create", random -> send("POST", base, product(id(random, products)))),
+                operation(mix, "update", random -> {
+                    long id = id(random, products);
+                    return send("PUT", base + "/" + id, product(id));
+                }),
+                operation(mix, "delete", random -> send("DELETE", base + "/" + id(random, products), null)),
+                operation(mix, "batch-create", random -> send("POST", base + "/batch", products(random, products, false))),
+                operation(mix, "batch-update", random -> send("PUT", base + "/batch", products(random, products, true))),
+                operation(mix, "batch-delete", random -> send("DELETE", base + "/batch",
+                        "[" + id(random, products) + "," + id(random, products) + "]")));
+    }
+
+    // The operations ReactiveProductController shares with ProductController, under the same names
+    static List<LoadDriver.Operation> reactive(URI baseUri, int products, Map<String, Integer> mix) {
+        String base = baseUri.toString() + "/api/reactive/products";
+        return List.of(
+                operation(mix, "stream", random -> get(base)),
+                operation(mix, "get", random -> get(base + "/" + id(random, products))),
+                operation(mix, "name", random -> get(base + "/name/" + name(id(random, products)))),
+                operation(mix, "search", random -> get(base + "/search?q=" + name(id(random, products / 10 + 1)))),
+                operation(mix, "create", random -> send("POST", base, product(id(random, products)))),
+                operation(mix, "update", random -> {
+                    long id = id(random, products);
+                    return send("PUT", base + "/" + id, product(id));
+                }),
+                operation(mix, "delete", random -> send("DELETE", base + "/" + id(random, products), null)));
+    }
+
+    // Creates the products 1..products through the batch endpoint, returns the HTTP status
+    static int seed(HttpClient httpClient, URI baseUri, int products) throws IOException, InterruptedException {
+        StringBuilder json = new StringBuilder("[");
+        for (long id = 1; id <= products; id++)
+            json.append(id > 1 ? "," : "").append(product(id));
+        json.append(']');
+        return httpClient.send(send("POST", baseUri + "/api/products/batch", json.toString()),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static LoadDriver.Operation operation(Map<String, Integer> mix, String name,
+                                                  Function<ThreadLocalRandom, HttpRequest> request) {
+        return new LoadDriver.Operation(name, mix.getOrDefault(name, 0), request);
+    }
+
+    private static long id(ThreadLocalRandom random, int products) {
+        return random.nextLong(1, products + 1);
+    }
+
+    private static String name(long id) {
+        return "Product%20" + id;
+    }
+
+    private static String product(long id) {
+        return "{\"name\":\"Product " + id + "\",\"price\":" + (id % 1000) / 10.0 + ",\"date\":\"2024-01-01\"}";
+    }
+
+    private static String products(ThreadLocalRandom random, int products, boolean withIds) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 20; i++) {
+            long id = id(random, products);
+            String product = product(id);
+            json.append(i > 0 ? "," : "").append(withIds ? "{\"id\":" + id + "," + product.substring(1) : product);
+        }
+        return json.append(']').toString();
+    }
+
+    private static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).GET().build();
+    }
+
+    private static HttpRequest send(String method, String uri, String json) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .method(method, json == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.crud.load;
+
+import com.example.crud.CrudApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Same workload against ProductController (JPA, one request thread per call) and
+ * ReactiveProductController (R2DBC reads, async requests), with many concurrent connections
+ * (load.connections, 2000 by default). Both run on platform threads and a fresh H2 database.
+ * The blocking search answers one page where the reactive one streams every match.
+ */
+class ReactiveLoadIT {
+
+    record ApiResult(String api, double throughput, Map<String, Double> p99, long errors,
+                     int peakPlatformThreads, double peakHeapMegabytes) {
+    }
+
+    @Test
+    void blockingVersusReactive() throws Exception {
+        LoadConfig defaults = LoadConfig.fromSystemProperties();
+        LoadConfig config = new LoadConfig(defaults.warmup(), defaults.duration(),
+                Integer.getInteger("load.connections", 2000), defaults.products(),
+                LoadConfig.parseMix(System.getProperty("load.reactive.mix", "get:70,name:10,search:10,stream:1,update:9")));
+
+        List<ApiResult> results = new ArrayList<>();
+        for (String api : List.of("blocking", "reactive")) {
+            try (ConfigurableApplicationContext context = start(api)) {
+                URI baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+                HttpClient httpClient = LoadDriver.defaultHttpClient();
+                assertEquals(200, ProductOperations.seed(httpClient, baseUri, config.products()));
+                System.gc();
+
+                List<LoadDriver.Operation> operations = api.equals("blocking")
+                        ? ProductOperations.all(baseUri, config.products(), config.mix())
+                        : ProductOperations.reactive(baseUri, config.products(), config.mix());
+                LoadReport report;
+                try (ResourceSampler sampler = new ResourceSampler()) {
+                    report = new LoadDriver(httpClient).run(config, operations);
+                    Map<String, Double> p99 = new LinkedHashMap<>();
+                    report.endpoints().forEach(endpoint -> p99.put(endpoint.operation(), endpoint.p99()));
+                    results.add(new ApiResult(api, report.totalRequests() / report.seconds(), p99,
+                            report.totalErrors(), sampler.peakThreads(), sampler.peakHeapMegabytes()));
+                }
+                System.out.println(api + " API\n" + report.toTable());
+            }
+        }
+
+        System.out.printf("%-9s %10s %7s %15s %12s  %s%n", "api", "req/s", "errors", "platform thr.", "heap MB", "p99 ms");
+        results.forEach(result -> System.out.printf("%-9s %10.1f %7d %15d %12.1f  %s%n", result.api(), result.throughput(),
+                result.errors(), result.peakPlatformThreads(), result.peakHeapMegabytes(), result.p99()));
+        Path path = Path.of(System.getProperty("load.reactive.report", "target/reactive-report.json"));
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), results);
+
+        assertTrue(results.stream().allMatch(result -> result.throughput() > 0));
+    }
+
+    private static ConfigurableApplicationContext start(String api) {
+        return new SpringApplicationBuilder(CrudApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:" + api + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                // the reactive reads see the same in-memory database as JPA
+                "--products.reactive.url=r2dbc:h2:mem:///" + api + ";DB_CLOSE_DELAY=-1",
+                "--products.reactive.username=sa",
+                "--products.reactive.password=",
+                "--products.admission.enabled=false",
+                "--logging.level.root=warn",
+                "--server.tomcat.max-connections=10000",
+                "--server.tomcat.accept-count=1000");
+    }
+}
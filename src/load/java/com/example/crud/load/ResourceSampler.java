@@ -0,0 +1,48 @@
+package com.example.crud.load;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Samples heap usage and live platform threads while a run is in progress and keeps the peaks.
+ * Virtual threads are not counted by the ThreadMXBean, which is exactly what we want to compare.
+ */
+class ResourceSampler implements AutoCloseable {
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final Thread sampler;
+    private volatile long peakHeapBytes;
+    private volatile int peakThreads;
+
+    ResourceSampler() {
+        sampler = Thread.ofPlatform().daemon().name("resource-sampler").start(this::sample);
+    }
+
+    private void sample() {
+        while (!Thread.currentThread().isInterrupted()) {
+            peakHeapBytes = Math.max(peakHeapBytes, memory.getHeapMemoryUsage().getUsed());
+            peakThreads = Math.max(peakThreads, threads.getThreadCount());
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    double peakHeapMegabytes() {
+        return peakHeapBytes / (1024.0 * 1024.0);
+    }
+
+    int peakThreads() {
+        return peakThreads;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        sampler.interrupt();
+        sampler.join();
+    }
+}
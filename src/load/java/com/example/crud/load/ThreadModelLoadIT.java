@@ -0,0 +1,83 @@
+package com.example.crud.load;
+
+import com.example.crud.CrudApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Same workload against platform threads (Tomcat pool) and the vthreads profile, with many
+ * concurrent connections (load.connections, 5000 by default). Client and server share the JVM,
+ * so heap and thread peaks include the client, which is identical for both runs.
+ */
+class ThreadModelLoadIT {
+
+    record ModeResult(String mode, double throughput, double p50, double p99, long errors,
+                      int peakPlatformThreads, double peakHeapMegabytes) {
+    }
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        LoadConfig defaults = LoadConfig.fromSystemProperties();
+        LoadConfig config = new LoadConfig(defaults.warmup(), defaults.duration(),
+                Integer.getInteger("load.connections", 5000), defaults.products(),
+                LoadConfig.parseMix(System.getProperty("load.thread-model.mix", "get:80,name:10,update:10")));
+
+        List<ModeResult> results = new ArrayList<>();
+        for (String mode : List.of("platform", "virtual")) {
+            try (ConfigurableApplicationContext context = start(mode)) {
+                URI baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+                HttpClient httpClient = LoadDriver.defaultHttpClient();
+                assertEquals(200, ProductOperations.seed(httpClient, baseUri, config.products()));
+                System.gc();
+
+                LoadReport report;
+                try (ResourceSampler sampler = new ResourceSampler()) {
+                    report = new LoadDriver(httpClient).run(config, ProductOperations.all(baseUri, config.products(), config.mix()));
+                    LoadReport.EndpointStats get = report.endpoints().get(0);
+                    results.add(new ModeResult(mode, report.totalRequests() / report.seconds(), get.p50(), get.p99(),
+                            report.totalErrors(), sampler.peakThreads(), sampler.peakHeapMegabytes()));
+                }
+                System.out.println(mode + " threads\n" + report.toTable());
+            }
+        }
+
+        System.out.printf("%-9s %10s %9s %9s %7s %15s %12s%n", "mode", "req/s", "p50 ms", "p99 ms", "errors", "platform thr.", "heap MB");
+        results.forEach(result -> System.out.printf("%-9s %10.1f %9.2f %9.2f %7d %15d %12.1f%n", result.mode(),
+                result.throughput(), result.p50(), result.p99(), result.errors(), result.peakPlatformThreads(), result.peakHeapMegabytes()));
+        Path path = Path.of(System.getProperty("load.thread-model.report", "target/thread-model-report.json"));
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), results);
+
+        assertTrue(results.stream().allMatch(result -> result.throughput() > 0));
+    }
+
+    private static ConfigurableApplicationContext start(String mode) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:" + mode + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--products.admission.enabled=false",
+                "--logging.level.root=warn",
+                // the same limits for both modes, only the threads differ
+                "--server.tomcat.max-connections=10000",
+                "--server.tomcat.accept-count=1000",
+                "--spring.datasource.hikari.maximum-pool-size=20",
+                "--spring.datasource.hikari.connection-timeout=2000"));
+        if (mode.equals("virtual"))
+            args.add("--spring.profiles.active=vthreads");
+        return new SpringApplicationBuilder(CrudApplication.class).run(args.toArray(String[]::new));
+    }
+}
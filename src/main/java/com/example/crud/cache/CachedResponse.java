@@ -0,0 +1,17 @@
+package com.example.crud.cache;
+
+/**
+ * A response body encoded once and served as is.
+ *
+ * @param etag validator the body was built for, null when it is only dropped on writes
+ * @param json the encoded body
+ * @param gzip the same body gzip-compressed, null when it was too small to be worth it
+ */
+public record CachedResponse(String etag, byte[] json, byte[] gzip) {
+
+    private static final int ENTRY_OVERHEAD = 64;
+
+    public int weight() {
+        return ENTRY_OVERHEAD + json.length + (gzip == null ? 0 : gzip.length);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.crud.cache;
+
+import com.example.crud.event.ProductChangedEvent;
+import com.example.crud.repository.VersionedProductView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JSON bodies of single products and of product pages, bounded by their size in bytes.
+ * Hot entries skip both the mapper and Jackson; Caffeine only admits entries that are asked for
+ * more often than the ones they would evict, so one-off pages do not push the popular ones out.
+ * Writes drop the product and every page, since any page may hold it. Pages are kept apart from the
+ * products, so that drop is a single invalidateAll() instead of a scan of the whole cache; max-size is
+ * split evenly between the two. Writes made through other nodes are not seen here: a product is checked
+ * against its validator on every request, a page has none and expires page-ttl after it was stored.
+ */
+@Component
+public class ProductResponseCache implements MeterBinder {
+
+    private record PageKey(String cursor, int size) {
+    }
+
+    private final Cache<Long, CachedResponse> products;
+    private final Cache<PageKey, CachedResponse> pages;
+    private final ObjectMapper objectMapper;
+    private final boolean gzip;
+    private final int gzipMinBytes;
+    // Bumped on every write, a page loaded before the write must not be stored after it.
+    private final AtomicLong generation = new AtomicLong();
+
+    public ProductResponseCache(ObjectMapper objectMapper,
+                                @Value("${products.response-cache.max-size:32MB}") DataSize maxSize,
+                                @Value("${products.response-cache.gzip:true}") boolean gzip,
+                                @Value("${products.response-cache.gzip-min-bytes:1024}") int gzipMinBytes,
+                                @Value("${products.response-cache.page-ttl:30s}") Duration pageTtl) {
+        this.objectMapper = objectMapper;
+        this.gzip = gzip;
+        this.gzipMinBytes = gzipMinBytes;
+        this.products = boundedCache(maxSize.toBytes() / 2).build();
+        this.pages = boundedCache(maxSize.toBytes() / 2).expireAfterWrite(pageTtl).build();
+    }
+
+    private static <K> Caffeine<K, CachedResponse> boundedCache(long maxBytes) {
+        return Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((K key, CachedResponse response) -> response.weight())
+                .recordStats();
+    }
+
+    /**
+     * @param etag   the current validator of the product, read from the database on every request.
+     *               Null when the product does not exist, the loader then runs and nothing is kept.
+     * @param loader reads the product together with its version, past every cache. The body is stored only
+     *               when that version is the one etag names: read in between, a write made on any node
+     *               would otherwise leave one version cached under the validator of another.
+     */
+    public CachedResponse getProduct(Long id, String etag, Supplier<VersionedProductView> loader) {
+        if (etag == null)
+            products.invalidate(id);
+        else {
+            CachedResponse cached = products.getIfPresent(id);
+            if (cached != null && etag.equals(cached.etag()))
+                return cached;
+        }
+        VersionedProductView product = loader.get();
+        String loadedEtag = product.toVersionView().etag();
+        CachedResponse response = encode(loadedEtag, product.toDto());
+        if (loadedEtag.equals(etag))
+            products.put(id, response);
+        return response;
+    }
+
+    public CachedResponse getPage(String cursor, int size, Supplier<?> loader) {
+        PageKey key = new PageKey(cursor, size);
+        CachedResponse cached = pages.getIfPresent(key);
+        if (cached != null)
+            return cached;
+        long loadedAt = generation.get();
+        CachedResponse response = encode(null, loader.get());
+        if (generation.get() == loadedAt)
+            pages.put(key, response);
+        return response;
+    }
+
+    // After commit, so that a reader can not cache the state being replaced.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(event.id());
+    }
+
+    public void invalidate(Long id) {
+        generation.incrementAndGet();
+        products.invalidate(id);
+        pages.invalidateAll();
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        products.invalidateAll();
+        pages.invalidateAll();
+    }
+
+    private CachedResponse encode(String etag, Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new CachedResponse(etag, json, gzip && json.length >= gzipMinBytes ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    // gzip, or *, listed without q=0.
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null)
+            return false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*"))
+                continue;
+            if (parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0{0,3})?"))
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, products, "productResponses");
+        CaffeineCacheMetrics.monitor(registry, pages, "productPageResponses");
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.crud.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Write counters per key, telling whether a value read from the database is still current once it is
+ * about to be cached. Take a stamp before the read, put through {@link #put} after it: the put is skipped
+ * when a write to that key committed in between. Writers call {@link #changed} after commit and evict
+ * afterwards, so a put racing with them is either skipped or evicted.
+ * Keys are hashed onto a fixed set of stripes, two keys sharing one only cost a skipped put.
+ */
+public class WriteGenerations {
+
+    private static final int STRIPES = 1024;
+
+    private final AtomicLongArray stripes = new AtomicLongArray(STRIPES);
+    private final AtomicLong all = new AtomicLong();
+
+    // Both counters only grow, so their sum moves whenever either does.
+    public long stamp(Object key) {
+        return all.get() + stripes.get(stripe(key));
+    }
+
+    public void changed(Object key) {
+        stripes.incrementAndGet(stripe(key));
+    }
+
+    public void changedAll() {
+        all.incrementAndGet();
+    }
+
+    /**
+     * Caches value unless key changed since loadedAt. Checked again after the put: a write whose evict ran
+     * between the first check and the put would otherwise leave the value cached.
+     */
+    public void put(Cache cache, Object key, Object value, long loadedAt) {
+        if (stamp(key) != loadedAt)
+            return;
+        cache.put(key, value);
+        if (stamp(key) != loadedAt)
+            cache.evict(key);
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
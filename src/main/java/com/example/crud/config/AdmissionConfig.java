@@ -0,0 +1,52 @@
+package com.example.crud.config;
+
+import com.example.crud.ratelimit.AdmissionInterceptor;
+import com.example.crud.ratelimit.ConcurrencyLimiter;
+import com.example.crud.ratelimit.RateLimiter;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Admission control for /api/products, off by default. The change feed and the bulk export and import are left out:
+// their requests stay open for minutes and would hold a concurrency slot all along.
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+@ConditionalOnProperty(name = "products.admission.enabled", havingValue = "true")
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    private final AdmissionInterceptor admissionInterceptor;
+
+    public AdmissionConfig(AdmissionProperties properties, ObjectProvider<HikariDataSource> dataSource,
+                           ObjectProvider<MeterRegistry> meterRegistry) {
+        RateLimiter rateLimiter = new RateLimiter(properties, System::nanoTime);
+        ConcurrencyLimiter concurrencyLimiter = null;
+        if (properties.concurrency().enabled()) {
+            HikariDataSource hikari = dataSource.getIfUnique();
+            concurrencyLimiter = new ConcurrencyLimiter(properties.concurrency(), () -> {
+                HikariPoolMXBean pool = hikari == null ? null : hikari.getHikariPoolMXBean();
+                return pool != null && pool.getThreadsAwaitingConnection() > 0;
+            });
+        }
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            rateLimiter.bindTo(registry);
+            if (concurrencyLimiter != null)
+                concurrencyLimiter.bindTo(registry);
+        }
+        this.admissionInterceptor = new AdmissionInterceptor(rateLimiter, concurrencyLimiter, properties.apiKeyHeader(),
+                properties.untimedRoutes(), registry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionInterceptor)
+                .addPathPatterns("/api/products", "/api/products/**")
+                .excludePathPatterns("/api/products/changes", "/api/products/export", "/api/products/import");
+    }
+}
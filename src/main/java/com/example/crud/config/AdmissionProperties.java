@@ -0,0 +1,56 @@
+package com.example.crud.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * products.admission.*: rate limits per client and route, and a shared concurrency limit in front of the database.
+ *
+ * Off unless products.admission.enabled is set.
+ *
+ * @param apiKeyHeader  header identifying a client, the remote address is used without it; behind a load
+ *                      balancer that is the balancer's, unless server.forward-headers-strategy resolves it
+ * @param maxClients    buckets kept in memory, the least recently used ones go first
+ * @param idleTimeout   a bucket not used for this long is dropped, it would be full again anyway
+ * @param routes        overrides of defaultLimit by ProductController method name, e.g. routes.getAllProducts
+ * @param untimedRoutes routes slow by design (whole table, batches), their latency does not move the concurrency limit
+ */
+@ConfigurationProperties(prefix = "products.admission")
+public record AdmissionProperties(@DefaultValue("false") boolean enabled,
+                                  @DefaultValue("X-Api-Key") String apiKeyHeader,
+                                  @DefaultValue("100000") int maxClients,
+                                  @DefaultValue("10m") Duration idleTimeout,
+                                  @DefaultValue Limit defaultLimit,
+                                  @DefaultValue Map<String, Limit> routes,
+                                  @DefaultValue({"getAllProducts", "streamAllProducts", "createProducts", "updateProducts", "deleteProducts"})
+                                  Set<String> untimedRoutes,
+                                  @DefaultValue Concurrency concurrency) {
+
+    public Limit limitFor(String route) {
+        return routes.getOrDefault(route, defaultLimit);
+    }
+
+    /**
+     * @param permitsPerSecond sustained rate, zero or less for no limit
+     * @param burst            requests allowed at once after an idle period
+     */
+    public record Limit(@DefaultValue("50") double permitsPerSecond,
+                        @DefaultValue("100") int burst) {
+    }
+
+    /**
+     * AIMD: the limit grows by one per limit's worth of fast requests and is cut by backoffRatio
+     * when a request takes longer than latencyThreshold or threads are waiting for a pooled connection.
+     */
+    public record Concurrency(@DefaultValue("true") boolean enabled,
+                              @DefaultValue("20") int initialLimit,
+                              @DefaultValue("4") int minLimit,
+                              @DefaultValue("200") int maxLimit,
+                              @DefaultValue("0.9") double backoffRatio,
+                              @DefaultValue("500ms") Duration latencyThreshold) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.crud.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Stores and limits are set through spring.cache.* in application.properties.
+// Hit/miss/eviction counters are published as cache.gets and cache.evictions in /actuator/metrics.
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCTS_BY_ID = "productsById";
+    public static final String PRODUCTS_BY_NAME = "productsByName";
+    public static final String SERVICES_BY_ID = "servicesById";
+}
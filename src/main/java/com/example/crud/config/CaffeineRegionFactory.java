@@ -0,0 +1,65 @@
+package com.example.crud.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.convert.DurationStyle;
+
+import javax.cache.CacheManager;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache regions on Caffeine, through JCache. Set as hibernate.cache.region.factory_class.
+ * Every session factory gets a cache manager of its own, closed by Hibernate with the factory, so two of them
+ * in one JVM (test contexts on different databases) never share entries. All regions are created here with
+ * their bounds, a region nobody configured fails the startup (missing_cache_strategy=fail).
+ */
+public class CaffeineRegionFactory extends JCacheRegionFactory {
+
+    public static final String PRODUCT_REGION = "product";
+    public static final String PRODUCT_QUERY_REGION = "product-queries";
+
+    static final String ENTITY_MAX_SIZE = "products.second-level-cache.entity-max-size";
+    static final String QUERY_MAX_SIZE = "products.second-level-cache.query-max-size";
+    static final String EXPIRE_AFTER_WRITE = "products.second-level-cache.expire-after-write";
+
+    @Override
+    protected CacheManager resolveCacheManager(SessionFactoryOptions settings, Map<String, Object> properties) {
+        CachingProvider cachingProvider = getCachingProvider(properties);
+        CacheManager cacheManager = cachingProvider.getCacheManager(
+                URI.create("hibernate-" + UUID.randomUUID()), getClassLoader(cachingProvider));
+
+        long entityMaxSize = Long.parseLong(property(properties, ENTITY_MAX_SIZE, "10000"));
+        long queryMaxSize = Long.parseLong(property(properties, QUERY_MAX_SIZE, "1000"));
+        Duration expireAfterWrite = DurationStyle.detectAndParse(property(properties, EXPIRE_AFTER_WRITE, "10m"));
+        cacheManager.createCache(PRODUCT_REGION, region(entityMaxSize, expireAfterWrite));
+        cacheManager.createCache(PRODUCT_QUERY_REGION, region(queryMaxSize, expireAfterWrite));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, region(queryMaxSize, expireAfterWrite));
+        // Last write time of each table, what cached query results are checked against. It must neither expire nor
+        // evict: a missing timestamp reads as "never written" and a stale result would be taken as fresh.
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, region(null, null));
+        return cacheManager;
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(Long maxSize, Duration expireAfterWrite) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false); // Hibernate caches its own disassembled state, no copy needed
+        configuration.setNativeStatisticsEnabled(true); // read by the cache.* meters
+        if (maxSize != null)
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        if (expireAfterWrite != null)
+            configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        return configuration;
+    }
+
+    private static String property(Map<String, Object> properties, String name, String defaultValue) {
+        Object value = properties.get(name);
+        return value == null ? defaultValue : value.toString();
+    }
+}
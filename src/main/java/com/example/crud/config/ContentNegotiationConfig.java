@@ -0,0 +1,58 @@
+package com.example.crud.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+
+// CBOR (application/cbor) and Smile (application/x-jackson-smile) for service-to-service calls, picked
+// through the Accept header. Both mappers come from the builder Spring Boot customizes, so dates and
+// the other spring.jackson.* settings match the JSON output. Compression is set with server.compression.*.
+@Configuration
+public class ContentNegotiationConfig {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.createXmlMapper(false).factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Whether JSON is the format the client prefers among the ones we produce. A missing Accept header means JSON,
+     * an unparsable one or one without any of our formats is left to the message converters to reject.
+     */
+    public static boolean prefersJson(String accept) {
+        if (accept == null || accept.isBlank())
+            return true;
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        MimeTypeUtils.sortBySpecificity(mediaTypes);
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.getQualityValue() == 0)
+                continue;
+            if (mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR) || mediaType.equalsTypeAndSubtype(APPLICATION_SMILE))
+                return false;
+            if (mediaType.includes(MediaType.APPLICATION_JSON))
+                return true;
+        }
+        return false;
+    }
+}
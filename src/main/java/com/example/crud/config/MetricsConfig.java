@@ -0,0 +1,73 @@
+package com.example.crud.config;
+
+import com.example.crud.metrics.SqlBudgetFilter;
+import com.example.crud.metrics.SqlStatementCounter;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.aop.ObservedAspect;
+import jakarta.persistence.EntityManagerFactory;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+// HTTP, Hikari, Hibernate statistics and repository metrics come from Spring Boot, this adds
+// the service observations (@Observed), the per-request SQL statement budget and the size,
+// hits and evictions of the second-level cache regions.
+@Configuration
+public class MetricsConfig {
+
+    // Observed services that also publish meters would otherwise time their own bindTo call.
+    @Bean
+    public ObservedAspect observedAspect(ObservationRegistry observationRegistry) {
+        Predicate<ProceedingJoinPoint> shouldSkip = joinPoint ->
+                joinPoint.getTarget() instanceof MeterBinder && joinPoint.getSignature().getName().equals("bindTo");
+        return new ObservedAspect(observationRegistry, shouldSkip);
+    }
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter sqlStatementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    // cache.* meters tagged with the region name, with the same tags as the response cache ones or the
+    // Prometheus registry would drop them. Hibernate's own counters per region are
+    // hibernate.second.level.cache.* and hibernate.cache.query.*.
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache().getRegionFactory();
+            if (!(regionFactory instanceof JCacheRegionFactory jCacheRegionFactory))
+                return;
+            javax.cache.CacheManager cacheManager = jCacheRegionFactory.getCacheManager();
+            for (String region : cacheManager.getCacheNames()) {
+                Cache<?, ?> cache = cacheManager.getCache(region).unwrap(Cache.class);
+                CaffeineCacheMetrics.monitor(registry, cache, region);
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlBudgetFilter> sqlBudgetFilter(SqlStatementCounter sqlStatementCounter, MeterRegistry meterRegistry,
+                                                                   @Value("${sql-budget.max-statements:10}") int maxStatements,
+                                                                   @Value("${sql-budget.excluded-paths:}") List<String> excludedPaths) {
+        return new FilterRegistrationBean<>(new SqlBudgetFilter(sqlStatementCounter, meterRegistry, maxStatements, excludedPaths));
+    }
+}
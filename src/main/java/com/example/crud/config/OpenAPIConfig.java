@@ -42,7 +42,7 @@ public class OpenAPIConfig {
                 .title("Product Management API")
                 .version("1.0")
                 .contact(contact)
-                .description("This API allows CRUD operations on products.")
+                .description("This API allows CRUD operations on products. Responses are JSON, or CBOR and Smile when asked for with Accept: application/cbor or application/x-jackson-smile.")
                 .termsOfService("https://mycrudapp.com/terms")
                 .license(mitLicense);
 
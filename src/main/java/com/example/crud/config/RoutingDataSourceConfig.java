@@ -0,0 +1,85 @@
+package com.example.crud.config;
+
+import com.example.crud.datasource.ReadYourWritesTracker;
+import com.example.crud.datasource.ReplicaPool;
+import com.example.crud.datasource.ReplicaRoutingDataSource;
+import com.example.crud.datasource.RoutingClientFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single spring.datasource pool with a primary plus read replicas when
+ * products.routing.enabled is set. Read-only transactions (@Transactional(readOnly = true))
+ * of the reads marked with ReplicaReads are served by the replicas, see ReplicaRoutingDataSource.
+ */
+@Configuration
+@EnableConfigurationProperties(RoutingProperties.class)
+@ConditionalOnProperty(name = "products.routing.enabled", havingValue = "true")
+public class RoutingDataSourceConfig {
+
+    // Still bound to spring.datasource.hikari.*, like the pool Spring Boot would have created.
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaPool replicaPool(RoutingProperties routingProperties, DataSourceProperties dataSourceProperties,
+                                   MeterRegistry meterRegistry) {
+        List<ReplicaPool.Replica> replicas = new ArrayList<>();
+        for (RoutingProperties.Replica replica : routingProperties.replicas()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + (replicas.size() + 1));
+            dataSource.setJdbcUrl(replica.url());
+            dataSource.setUsername(replica.username() != null ? replica.username() : dataSourceProperties.determineUsername());
+            dataSource.setPassword(replica.password() != null ? replica.password() : dataSourceProperties.determinePassword());
+            dataSource.setMaximumPoolSize(replica.maximumPoolSize());
+            dataSource.setReadOnly(true);
+            dataSource.setInitializationFailTimeout(-1); // a replica being down must not stop the startup
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new ReplicaPool.Replica(dataSource.getPoolName(), dataSource));
+        }
+        ReplicaPool replicaPool = new ReplicaPool(replicas, routingProperties.strategy());
+        Gauge.builder("products.routing.replicas.healthy", replicaPool, ReplicaPool::healthyCount)
+                .description("Replicas passing the health check")
+                .register(meterRegistry);
+        return replicaPool;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(RoutingProperties routingProperties) {
+        return new ReadYourWritesTracker(routingProperties.stickiness());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaPool replicaPool,
+                                 ReadYourWritesTracker readYourWritesTracker) {
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primaryDataSource, replicaPool, readYourWritesTracker));
+    }
+
+    @Bean
+    public FilterRegistrationBean<RoutingClientFilter> routingClientFilter(ReadYourWritesTracker readYourWritesTracker,
+                                                                           RoutingProperties routingProperties) {
+        return new FilterRegistrationBean<>(new RoutingClientFilter(readYourWritesTracker, routingProperties.clientHeader()));
+    }
+}
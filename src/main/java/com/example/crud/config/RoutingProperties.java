@@ -0,0 +1,30 @@
+package com.example.crud.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * products.routing.*: read replicas behind spring.datasource (the primary).
+ *
+ * @param stickiness   how long the reads of a client keep going to the primary after it wrote, zero to disable
+ * @param clientHeader header identifying a client for stickiness, the remote address is used without it
+ */
+@ConfigurationProperties(prefix = "products.routing")
+public record RoutingProperties(boolean enabled,
+                                @DefaultValue List<Replica> replicas,
+                                @DefaultValue("round-robin") Strategy strategy,
+                                @DefaultValue("5s") Duration stickiness,
+                                @DefaultValue("X-Client-Id") String clientHeader) {
+
+    public enum Strategy { ROUND_ROBIN, LEAST_CONNECTIONS }
+
+    /**
+     * @param username defaults to the primary one, as does password
+     */
+    public record Replica(String url, String username, String password,
+                          @DefaultValue("10") int maximumPoolSize) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.crud.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background jobs (@Scheduled) such as the outbox dispatcher, see spring.task.scheduling.* for the pool.
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,4 +0,0 @@
-package com.example.crud.controller;
-
-public class AnotherController {
-}
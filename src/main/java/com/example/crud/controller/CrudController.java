@@ -0,0 +1,124 @@
+package com.example.crud.controller;
+
+import com.example.crud.dto.BatchErrorDTO;
+import com.example.crud.dto.PageDTO;
+import com.example.crud.entity.Identifiable;
+import com.example.crud.exception.ResourceNotFoundException;
+import com.example.crud.service.CrudService;
+import com.example.crud.service.KeysetPages;
+import com.example.crud.util.JsonArrayReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * REST endpoints over a {@link CrudService}, under the @RequestMapping path of the subclass.
+ * Request and response bodies are typed after the DTO the subclass binds.
+ */
+public abstract class CrudController<E extends Identifiable, D> {
+
+    private final CrudService<E, D> service;
+    private final ObjectMapper objectMapper;
+    private final Class<D> dtoType;
+
+    protected CrudController(CrudService<E, D> service, ObjectMapper objectMapper, Class<D> dtoType) {
+        this.service = service;
+        this.objectMapper = objectMapper;
+        this.dtoType = dtoType;
+    }
+
+    @Operation(summary = "Get a page",
+            description = "Keyset paginated list ordered by id. Pass the returned nextCursor to get the following page, it is null on the last one.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Found the page"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor", content = @Content)})
+    @GetMapping
+    public ResponseEntity<PageDTO<D>> getPage(
+            @Parameter(description = "Cursor returned by the previous page, empty for the first one")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, capped at " + KeysetPages.MAX_PAGE_SIZE)
+            @RequestParam(defaultValue = "" + KeysetPages.DEFAULT_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(service.getPage(cursor, size));
+    }
+
+    @Operation(summary = "Retrieve one by id", description = "Served from the cache when it was read recently.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Found it"),
+            @ApiResponse(responseCode = "404", description = "Not found", content = @Content)})
+    @GetMapping("/{id}")
+    public ResponseEntity<D> getById(
+            @Parameter(description = "ID to be searched", required = true)
+            @PathVariable Long id) {
+        return ResponseEntity.ok(service.getById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(service.getEntityName() + " not found")));
+    }
+
+    @Operation(summary = "Create", description = "Create a new one and return it.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Created successfully")})
+    @PostMapping
+    public ResponseEntity<D> create(@RequestBody final D dto) {
+        return ResponseEntity.ok(service.create(dto));
+    }
+
+    @Operation(summary = "Update", description = "Replace every field and return the result, if it exists, otherwise return not found.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Updated successfully"),
+            @ApiResponse(responseCode = "404", description = "Not found", content = @Content)})
+    @PutMapping("/{id}")
+    public ResponseEntity<D> update(
+            @Parameter(description = "ID to be updated", required = true)
+            @PathVariable Long id,
+            @RequestBody final D dto) {
+        return ResponseEntity.ok(service.update(id, dto));
+    }
+
+    @Operation(summary = "Delete", description = "Delete it, if it exists.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Deleted successfully", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Not found", content = @Content)})
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(
+            @Parameter(description = "ID to be deleted", required = true)
+            @PathVariable Long id) {
+        service.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Create in bulk",
+            description = "Create every item of the JSON array. The body is parsed incrementally and written in chunked transactions. Returns one status per item, in order (201 created, 400 invalid, 500 failed).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see the status of each item"),
+            @ApiResponse(responseCode = "400", description = "The body is not a JSON array, or an element is malformed. In the latter case the items before it were already processed: their statuses are in the body, the rest was not written",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BatchErrorDTO.class)))})
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<Integer>> createAll(InputStream body) throws IOException {
+        try (JsonArrayReader<D> dtos = new JsonArrayReader<>(objectMapper, body, dtoType)) {
+            return ResponseEntity.ok(service.createAll(dtos));
+        }
+    }
+
+    @Operation(summary = "Delete in bulk",
+            description = "Delete every id of the JSON array. Returns one status per item, in order (204 deleted, 400 invalid, 404 not found, 500 failed).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see the status of each item"),
+            @ApiResponse(responseCode = "400", description = "The body is not a JSON array, or an element is malformed. In the latter case the items before it were already processed: their statuses are in the body, the rest was not written",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BatchErrorDTO.class)))})
+    @DeleteMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<Integer>> deleteAll(InputStream body) throws IOException {
+        try (JsonArrayReader<Long> ids = new JsonArrayReader<>(objectMapper, body, Long.class)) {
+            return ResponseEntity.ok(service.deleteAll(ids));
+        }
+    }
+}
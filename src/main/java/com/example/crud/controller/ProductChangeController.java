@@ -0,0 +1,64 @@
+package com.example.crud.controller;
+
+import com.example.crud.dto.ProductChangeDTO;
+import com.example.crud.feed.ProductChangeFeed;
+import com.example.crud.feed.ProductChangeSubscriptions;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+
+@Tag(name = "Product changes", description = "Feed of the product writes")
+@RestController
+@RequestMapping(path = "api/products/changes")
+public class ProductChangeController {
+
+    private final ProductChangeSubscriptions productChangeSubscriptions;
+    private final ProductChangeFeed productChangeFeed;
+    private final Duration timeout;
+
+    public ProductChangeController(ProductChangeSubscriptions productChangeSubscriptions, ProductChangeFeed productChangeFeed,
+                                   @Value("${products.changes.timeout:30m}") Duration timeout) {
+        this.productChangeSubscriptions = productChangeSubscriptions;
+        this.productChangeFeed = productChangeFeed;
+        this.timeout = timeout;
+    }
+
+    @Operation(summary = "Follow product changes",
+            description = "Server-Sent Events with one created/updated/deleted event per committed write, the event id is epoch-sequence. "
+                    + "Reconnect with Last-Event-ID (or from) to resume. A gap event means changes were dropped, or the server restarted since the id was handed out: reload what you need and go on.",
+            tags = { "product", "get", "changes" })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Streaming the changes",
+                    content = {@Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = ProductChangeDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Invalid Last-Event-ID or from", content = @Content)})
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter followChanges(
+            @Parameter(description = "Event id of the first change to receive, only new changes when missing")
+            @RequestParam(required = false) String from,
+            @Parameter(description = "true to get only the latest change of each product when behind")
+            @RequestParam(defaultValue = "false") boolean coalesce,
+            @Parameter(description = "Id of the last event received, sent by EventSource on reconnection")
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        Long start = null;
+        if (lastEventId != null) {
+            long last = productChangeFeed.sequenceOf(lastEventId);
+            start = last == ProductChangeFeed.UNKNOWN_SEQUENCE ? last : last + 1;
+        } else if (from != null) {
+            start = productChangeFeed.sequenceOf(from);
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        productChangeSubscriptions.subscribe(emitter, start, coalesce);
+        return emitter;
+    }
+}
@@ -1,19 +1,55 @@
 package com.example.crud.controller;
 
+import com.example.crud.cache.CachedResponse;
+import com.example.crud.cache.ProductResponseCache;
+import com.example.crud.config.ContentNegotiationConfig;
+import com.example.crud.dto.BatchErrorDTO;
 import com.example.crud.dto.ProductDTO;
+import com.example.crud.dto.ProductImportReportDTO;
+import com.example.crud.dto.ProductLookupDTO;
+import com.example.crud.dto.ProductPageDTO;
+import com.example.crud.dto.ProductUpdateDTO;
+import com.example.crud.exception.BadRequestException;
+import com.example.crud.exception.PreconditionFailedException;
+import com.example.crud.repository.ProductFilter;
+import com.example.crud.repository.ProductSort;
+import com.example.crud.repository.ProductVersionView;
+import com.example.crud.repository.VersionedProductView;
+import com.example.crud.service.KeysetPages;
+import com.example.crud.service.ProductBatchService;
+import com.example.crud.service.ProductSearchService;
+import com.example.crud.service.ProductFileFormat;
 import com.example.crud.service.ProductService;
+import com.example.crud.service.ProductTransferService;
 import com.example.crud.exception.ResourceNotFoundException;
+import com.example.crud.util.JsonArrayReader;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 // http://localhost:8080/swagger-ui/index.html
 
 @Tag(name = "Products", description = "My products management APIs")
@@ -22,24 +58,43 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductBatchService productBatchService;
+    private final ProductSearchService productSearchService;
+    private final ProductTransferService productTransferService;
+    private final ProductResponseCache responseCache;
+    private final ObjectMapper objectMapper;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductBatchService productBatchService,
+                             ProductSearchService productSearchService, ProductTransferService productTransferService,
+                             ProductResponseCache responseCache, ObjectMapper objectMapper) {
         this.productService = productService;
+        this.productBatchService = productBatchService;
+        this.productSearchService = productSearchService;
+        this.productTransferService = productTransferService;
+        this.responseCache = responseCache;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(summary = "Get all products",
-            description = "Get all product, if any, otherwise returns an empty list.",
+            description = "Get all product, if any, otherwise returns an empty list. Send the returned ETag in If-None-Match to get a 304 while the list is unchanged.",
             tags = { "product", "get" })
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Found all products",
                     content = {@Content(mediaType = "application/json",
                             schema = @Schema(implementation = ProductDTO.class))}),
             @ApiResponse(responseCode = "204", description = "No products found", content = @Content(schema = @Schema())),
+            @ApiResponse(responseCode = "304", description = "The list did not change since the ETag sent in If-None-Match", content = @Content(schema = @Schema())),
             @ApiResponse(responseCode = "404", description = "Page not found", content = { @Content(schema = @Schema()) }),
             @ApiResponse(responseCode = "500", content = { @Content(schema = @Schema()) }) })
     @GetMapping
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
-        List<ProductDTO> products = this.productService.getAllProducts();
+    public ResponseEntity<List<ProductDTO>> getAllProducts(WebRequest webRequest) {
+        // No Last-Modified here: a delete does not move the newest timestamp, only the count in the ETag.
+        Optional<List<ProductDTO>> catalog = productService.getAllProducts(catalogVersion ->
+                catalogVersion.isPresent() && webRequest.checkNotModified(weakEtag(catalogVersion.get().etag())));
+        if (catalog.isEmpty())
+            return null; //304 already written, the list is never loaded
+
+        List<ProductDTO> products = catalog.get();
         if (products.isEmpty()) {
             return ResponseEntity.noContent().build(); //204: no response payload body will be present
         } else {
@@ -47,6 +102,142 @@ public class ProductController {
         }
     }
 
+    @Operation(summary = "Get many products by id",
+            description = "Products of the given ids (comma separated or repeated, at most " + ProductService.MAX_LOOKUP_IDS + ") in one round trip, keyed by id in the order asked for. Ids that do not exist are listed in missing.",
+            tags = { "product", "get", "id" })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Looked up every id",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ProductLookupDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Too many or invalid ids", content = @Content)})
+    @GetMapping(params = "ids")
+    public ResponseEntity<ProductLookupDTO> getProductsByIds(
+            @Parameter(description = "IDs of the products to be searched", required = true)
+            @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+
+    @Operation(summary = "Look up many products by id",
+            description = "Same as GET with ids, for id lists too long for a URL. The body is a JSON array of ids.",
+            tags = { "product", "post", "id" })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Looked up every id",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ProductLookupDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Too many or invalid ids", content = @Content)})
+    @PostMapping(path = "/lookup", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProductLookupDTO> lookupProducts(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Ids of the products to be searched", required = true,
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = Long.class))))
+            @org.springframework.web.bind.annotation.RequestBody List<Long> ids) {
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+
+    @Operation(summary = "Get a page of products",
+            description = "Keyset paginated list, ordered by id unless sort is given. Optional filters narrow it down: price and date ranges (inclusive) and a case sensitive name prefix. Pass the returned nextCursor, with the same sort and filters, to get the following page; it is null on the last one.",
+            tags = { "product", "get" })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Found the page",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ProductPageDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, sort or range", content = @Content)})
+    @GetMapping("/page")
+    public ResponseEntity<?> getProductsPage(
+            @Parameter(description = "Cursor returned by the previous page, empty for the first one")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, capped at " + KeysetPages.MAX_PAGE_SIZE)
+            @RequestParam(defaultValue = "" + KeysetPages.DEFAULT_PAGE_SIZE) int size,
+            @Parameter(description = "Lowest price") @RequestParam(required = false) Float minPrice,
+            @Parameter(description = "Highest price") @RequestParam(required = false) Float maxPrice,
+            @Parameter(description = "Earliest date, as yyyy-MM-dd") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Latest date, as yyyy-MM-dd") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Start of the name") @RequestParam(required = false) String name,
+            @Parameter(description = "id, name, price, date or updatedAt")
+            @RequestParam(defaultValue = "id") String sort,
+            @Parameter(description = "asc or desc")
+            @RequestParam(defaultValue = "asc") String direction,
+            WebRequest webRequest) {
+        ProductFilter filter = new ProductFilter(minPrice, maxPrice, from, to, name);
+        ProductSort productSort = ProductSort.fromAttribute(sort);
+        boolean descending = switch (direction.toLowerCase()) {
+            case "asc" -> false;
+            case "desc" -> true;
+            default -> throw new BadRequestException("direction is asc or desc");
+        };
+        if (!filter.isEmpty() || productSort != ProductSort.ID || descending)
+            return ResponseEntity.ok(productService.getFilteredPage(filter, productSort, descending, cursor, size));
+
+        if (!ContentNegotiationConfig.prefersJson(webRequest.getHeader(HttpHeaders.ACCEPT)))
+            return ResponseEntity.ok(productService.getProductsPage(cursor, size));
+
+        CachedResponse page = responseCache.getPage(cursor, size, () -> productService.getProductsPage(cursor, size));
+        return cachedBody(page, webRequest);
+    }
+
+    @Operation(summary = "Stream all products",
+            description = "Writes every product as a JSON array straight to the response, without loading the whole table in memory.",
+            tags = { "product", "get" })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Streamed all products",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ProductDTO.class))})})
+    @GetMapping("/stream")
+    public void streamAllProducts(HttpServletResponse response) throws IOException {
+        // Written on the request thread like the export, a StreamingResponseBody of the whole table outlasts the async timeout.
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.writeStartArray();
+            productService.streamAllProducts(productDTO -> {
+                try {
+                    generator.writePOJO(productDTO);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Operation(summary = "Export all products",
+            description = "Writes every product, ordered by id, as CSV (with a header line) or NDJSON, read from a database cursor as it is sent.",
+            tags = { "product", "get", "bulk" })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exported all products",
+                    content = {@Content(mediaType = ProductFileFormat.CSV_VALUE), @Content(mediaType = "application/x-ndjson")}),
+            @ApiResponse(responseCode = "400", description = "Unknown format", content = @Content)})
+    @GetMapping("/export")
+    public void exportProducts(
+            @Parameter(description = "csv or ndjson") @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) throws IOException {
+        ProductFileFormat fileFormat = ProductFileFormat.fromExtension(format);
+        // Written on the request thread, see streamAllProducts.
+        response.setContentType(fileFormat.mediaType().toString());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products." + fileFormat.extension() + "\"");
+        productTransferService.exportProducts(fileFormat, response.getWriter());
+    }
+
+    @Operation(summary = "Import products",
+            description = "Creates a product per CSV record (header with name, price and optionally date; other columns such as id are ignored) or per NDJSON line. "
+                    + "Rows are read as they arrive and written in batches; rows that can not be parsed or written are reported with their line, the others are imported.",
+            tags = { "product", "post", "bulk" })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Upload processed, see the rejected rows",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ProductImportReportDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "The CSV header lacks name or price", content = @Content)})
+    @PostMapping(path = "/import", consumes = {ProductFileFormat.CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ProductImportReportDTO> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        return ResponseEntity.ok(productTransferService.importProducts(ProductFileFormat.fromMediaType(contentType),
+                new InputStreamReader(body, charset)));
+    }
+
     @Operation(summary = "Create a new product",
             description = "Create a new product and return it.",
             tags = { "product", "post" })
@@ -64,20 +255,53 @@ public class ProductController {
     }
 
     @Operation(summary = "Retrieve a Product by Id",
-            description = "Get a product by specifying its id, if exist, otherwise return a product not found. The response is a Product object with name, price and date.",
+            description = "Get a product by specifying its id, if exist, otherwise return a product not found. The response is a Product object with name, price and date, with ETag and Last-Modified headers for conditional requests.",
             tags = { "product", "get", "id" })
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Found the product",
                     content = {@Content(mediaType = "application/json",
                             schema = @Schema(implementation = ProductDTO.class))}),
+            @ApiResponse(responseCode = "304", description = "The product did not change since the ETag or date sent", content = @Content),
             @ApiResponse(responseCode = "404", description = "Product not found", content = @Content)})
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDTO> getProductById(
+    public ResponseEntity<?> getProductById(
             @Parameter(description = "ID of the product to be searched", required = true)
-            @PathVariable Long id) {
-        ProductDTO productDTO = productService.getProductById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Producto no encontrado"));
-        return ResponseEntity.ok(productDTO);
+            @PathVariable Long id, WebRequest webRequest) {
+        if (!ContentNegotiationConfig.prefersJson(webRequest.getHeader(HttpHeaders.ACCEPT))) {
+            // Nothing cached to validate: the validators and the body come from the same fresh row.
+            VersionedProductView product = productService.getVersionedProduct(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Producto no encontrado"));
+            ProductVersionView version = product.toVersionView();
+            if (webRequest.checkNotModified(weakEtag(version.etag()), version.lastModified()))
+                return null; //304 already written
+            return ResponseEntity.ok(product.toDto());
+        }
+
+        Optional<ProductVersionView> version = productService.getProductVersion(id);
+        if (version.isPresent() && webRequest.checkNotModified(weakEtag(version.get().etag()), version.get().lastModified()))
+            return null; //304 already written, the product is never loaded
+
+        CachedResponse product = responseCache.getProduct(id, version.map(ProductVersionView::etag).orElse(null),
+                () -> productService.getVersionedProduct(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("Producto no encontrado")));
+        return cachedBody(product, webRequest);
+    }
+
+    // Weak: the same version goes out as JSON, gzip, CBOR or Smile. Tomcat also never compresses bodies with strong ETags.
+    private static String weakEtag(String tag) {
+        return "W/\"" + tag + "\"";
+    }
+
+    // The encoded body is written as is, gzip-compressed when both the entry and the client allow it.
+    // Only JSON is cached, CBOR and Smile go through the message converters.
+    private static ResponseEntity<byte[]> cachedBody(CachedResponse response, WebRequest webRequest) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (response.gzip() == null)
+            return builder.body(response.json());
+        builder.varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (!ProductResponseCache.acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING)))
+            return builder.body(response.json());
+        return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(response.gzip());
     }
 
     @Operation(summary = "Retrieve a Product by name",
@@ -96,24 +320,77 @@ public class ProductController {
         return ResponseEntity.ok(productsDTO);
     }
 
+    @Operation(summary = "Search products by name",
+            description = "Case and accent insensitive search by name, matching either the beginning or the whole name. Results are ordered by name and paginated with nextCursor.",
+            tags = { "product", "get", "search" })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Found the matching products",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ProductPageDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Missing query or invalid cursor", content = @Content)})
+    @GetMapping("/search")
+    public ResponseEntity<ProductPageDTO> searchProducts(
+            @Parameter(description = "Text to search", required = true)
+            @RequestParam String q,
+            @Parameter(description = "true to match names starting with q, false to match the whole name")
+            @RequestParam(defaultValue = "true") boolean prefix,
+            @Parameter(description = "Cursor returned by the previous page, empty for the first one")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, capped at " + KeysetPages.MAX_PAGE_SIZE)
+            @RequestParam(defaultValue = "" + KeysetPages.DEFAULT_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(productSearchService.searchProducts(q, prefix, cursor, size));
+    }
+
     @Operation(summary = "Update a product",
-            description = "Update a product and return it, if exists, otherwise return a product not found.",
+            description = "Update a product and return it, if exists, otherwise return a product not found. Send the ETag of the product in If-Match to update it only if nobody changed it since: "
+                    + "otherwise the answer is 412 and the product is left as is. The response then carries the ETag of the new version.",
             tags = { "product", "update" })
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Product updated successfully",
                     content = {@Content(mediaType = "application/json",
                             schema = @Schema(implementation = ProductDTO.class))}),
-            @ApiResponse(responseCode = "404", description = "Product not found", content = @Content)})
+            @ApiResponse(responseCode = "404", description = "Product not found", content = @Content),
+            @ApiResponse(responseCode = "412", description = "The product changed since the ETag sent in If-Match", content = @Content)})
     @PutMapping("/{id}")
     public ResponseEntity<ProductDTO> updateProduct(
             @Parameter(description = "ID of the product to be updated", required = true)
             @PathVariable Long id,
+            @Parameter(description = "ETag of the product as last read")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Updated product details", required = true,
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ProductDTO.class)))
             @org.springframework.web.bind.annotation.RequestBody final ProductDTO productDtoDetails) {
-        ProductDTO updatedProductDto = productService.updateProduct(id, productDtoDetails);
-        return ResponseEntity.ok(updatedProductDto);
+        Long expectedVersion = expectedVersion(id, ifMatch);
+        if (expectedVersion == null)
+            return ResponseEntity.ok(productService.updateProduct(id, productDtoDetails));
+
+        ProductDTO updatedProductDto = productService.updateProduct(id, productDtoDetails, expectedVersion);
+        return ResponseEntity.ok().eTag(weakEtag(new ProductVersionView(id, expectedVersion + 1, null).etag()))
+                .body(updatedProductDto);
+    }
+
+    // Version named by If-Match, null when there is none or it is *. The ETags are weak only because of the
+    // encodings, the version in them identifies the content, so weak ones are taken too.
+    private static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*"))
+            return null;
+        String tag = ifMatch.trim();
+        if (tag.contains(","))
+            throw new BadRequestException("If-Match takes a single ETag");
+        if (tag.startsWith("W/"))
+            tag = tag.substring(2);
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\""))
+            throw new BadRequestException("Malformed If-Match");
+        tag = tag.substring(1, tag.length() - 1);
+        String prefix = id + "-";
+        if (!tag.startsWith(prefix))
+            throw new PreconditionFailedException("The ETag in If-Match is not one of this product");
+        try {
+            return Long.parseLong(tag.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("The ETag in If-Match is not one of this product");
+        }
     }
 
     @Operation(summary = "Delete a product",
@@ -129,5 +406,58 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Create products in bulk",
+            description = "Create every product of the JSON array. The body is parsed incrementally and written in chunked transactions. Returns one status per item, in order (201 created, 400 invalid, 500 failed).",
+            tags = { "product", "post", "batch" })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see the status of each item"),
+            @ApiResponse(responseCode = "400", description = "The body is not a JSON array, or an element is malformed. In the latter case the items before it were already processed: their statuses are in the body, the rest was not written",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BatchErrorDTO.class)))})
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<Integer>> createProducts(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Products to create", required = true,
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ProductDTO.class))))
+            InputStream body) throws IOException {
+        try (JsonArrayReader<ProductDTO> productDTOs = new JsonArrayReader<>(objectMapper, body, ProductDTO.class)) {
+            return ResponseEntity.ok(productBatchService.createProducts(productDTOs));
+        }
+    }
+
+    @Operation(summary = "Update products in bulk",
+            description = "Update every product of the JSON array, each item carries its id. Returns one status per item, in order (200 updated, 400 invalid, 404 not found, 500 failed).",
+            tags = { "product", "update", "batch" })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see the status of each item"),
+            @ApiResponse(responseCode = "400", description = "The body is not a JSON array, or an element is malformed. In the latter case the items before it were already processed: their statuses are in the body, the rest was not written",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BatchErrorDTO.class)))})
+    @PutMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<Integer>> updateProducts(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Products to update", required = true,
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ProductUpdateDTO.class))))
+            InputStream body) throws IOException {
+        try (JsonArrayReader<ProductUpdateDTO> updates = new JsonArrayReader<>(objectMapper, body, ProductUpdateDTO.class)) {
+            return ResponseEntity.ok(productBatchService.updateProducts(updates));
+        }
+    }
+
+    @Operation(summary = "Delete products in bulk",
+            description = "Delete every product whose id is in the JSON array. Returns one status per item, in order (204 deleted, 400 invalid, 404 not found, 500 failed).",
+            tags = { "product", "delete", "batch" })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see the status of each item"),
+            @ApiResponse(responseCode = "400", description = "The body is not a JSON array, or an element is malformed. In the latter case the items before it were already processed: their statuses are in the body, the rest was not written",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BatchErrorDTO.class)))})
+    @DeleteMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<Integer>> deleteProducts(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Ids of the products to delete", required = true,
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = Long.class))))
+            InputStream body) throws IOException {
+        try (JsonArrayReader<Long> ids = new JsonArrayReader<>(objectMapper, body, Long.class)) {
+            return ResponseEntity.ok(productBatchService.deleteProducts(ids));
+        }
+    }
 
 }
@@ -0,0 +1,146 @@
+package com.example.crud.controller;
+
+import com.example.crud.dto.ProductDTO;
+import com.example.crud.service.ReactiveProductService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Same operations as ProductController, but no request thread waits on the database:
+ * the servlet request goes async and is completed when the publisher emits.
+ * Lists are written as newline delimited JSON, one product per line, as the rows arrive. Spring MVC runs
+ * such streams without the async request timeout, so they are bounded by products.reactive.stream-timeout instead.
+ */
+@Tag(name = "Reactive products", description = "Non-blocking variant of the products API")
+@RestController
+@RequestMapping(path = "api/reactive/products")
+public class ReactiveProductController {
+
+    private final ReactiveProductService reactiveProductService;
+    private final Duration streamTimeout;
+
+    public ReactiveProductController(ReactiveProductService reactiveProductService,
+                                     @Value("${products.reactive.stream-timeout:1h}") Duration streamTimeout) {
+        this.reactiveProductService = reactiveProductService;
+        this.streamTimeout = streamTimeout;
+    }
+
+    @Operation(summary = "Stream all products",
+            description = "Every product ordered by id, one JSON document per line.",
+            tags = { "product", "get", "reactive" })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Streamed all products",
+                    content = {@Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = ProductDTO.class))})})
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ProductDTO> getAllProducts() {
+        return bounded(reactiveProductService.getAllProducts());
+    }
+
+    @Operation(summary = "Retrieve a Product by Id",
+            description = "Get a product by specifying its id, if exist, otherwise return a product not found.",
+            tags = { "product", "get", "id", "reactive" })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Found the product",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ProductDTO.class))}),
+            @ApiResponse(responseCode = "404", description = "Product not found", content = @Content)})
+    @GetMapping("/{id}")
+    public Mono<ProductDTO> getProductById(
+            @Parameter(description = "ID of the product to be searched", required = true)
+            @PathVariable Long id) {
+        return reactiveProductService.getProductById(id);
+    }
+
+    @Operation(summary = "Retrieve Products by name",
+            description = "Every product with exactly this name, one JSON document per line.",
+            tags = { "product", "get", "reactive" })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Streamed the matching products",
+                    content = {@Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = ProductDTO.class))})})
+    @GetMapping(path = "/name/{productName}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ProductDTO> getProductByName(
+            @Parameter(description = "Name of the product to be searched", required = true)
+            @PathVariable String productName) {
+        return bounded(reactiveProductService.getProductsByName(productName));
+    }
+
+    @Operation(summary = "Search products by name",
+            description = "Case and accent insensitive search by name, every match ordered by name, one JSON document per line.",
+            tags = { "product", "get", "search", "reactive" })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Streamed the matching products",
+                    content = {@Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = ProductDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Missing query", content = @Content)})
+    @GetMapping(path = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ProductDTO> searchProducts(
+            @Parameter(description = "Text to search", required = true)
+            @RequestParam String q,
+            @Parameter(description = "true to match names starting with q, false to match the whole name")
+            @RequestParam(defaultValue = "true") boolean prefix) {
+        return bounded(reactiveProductService.searchProducts(q, prefix));
+    }
+
+    @Operation(summary = "Create a new product",
+            description = "Create a new product and return it.",
+            tags = { "product", "post", "reactive" })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Product created successfully",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ProductDTO.class))})})
+    @PostMapping
+    public Mono<ProductDTO> createProduct(@RequestBody final ProductDTO productDTO) {
+        return reactiveProductService.createProduct(productDTO);
+    }
+
+    @Operation(summary = "Update a product",
+            description = "Update a product and return it, if exists, otherwise return a product not found.",
+            tags = { "product", "update", "reactive" })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Product updated successfully",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ProductDTO.class))}),
+            @ApiResponse(responseCode = "404", description = "Product not found", content = @Content)})
+    @PutMapping("/{id}")
+    public Mono<ProductDTO> updateProduct(
+            @Parameter(description = "ID of the product to be updated", required = true)
+            @PathVariable Long id,
+            @RequestBody final ProductDTO productDtoDetails) {
+        return reactiveProductService.updateProduct(id, productDtoDetails);
+    }
+
+    @Operation(summary = "Delete a product",
+            description = "Delete a product, if it exists.", tags = { "product", "delete", "reactive" })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Product deleted successfully", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Product not found", content = @Content)})
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteProduct(
+            @Parameter(description = "ID of the product to be deleted", required = true)
+            @PathVariable Long id) {
+        return reactiveProductService.deleteProduct(id)
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    // Fails the stream once it has run for streamTimeout, however steadily it emits. Rows are still pulled on demand.
+    private <T> Flux<T> bounded(Flux<T> stream) {
+        return stream.takeUntilOther(Mono.delay(streamTimeout)
+                .then(Mono.error(() -> new TimeoutException("Stream ran longer than " + streamTimeout))));
+    }
+}
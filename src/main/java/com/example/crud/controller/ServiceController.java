@@ -0,0 +1,19 @@
+package com.example.crud.controller;
+
+import com.example.crud.dto.ServiceDTO;
+import com.example.crud.entity.Service;
+import com.example.crud.service.ServiceCrudService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Services", description = "My services management APIs")
+@RestController
+@RequestMapping(path = "api/services")
+public class ServiceController extends CrudController<Service, ServiceDTO> {
+
+    public ServiceController(ServiceCrudService serviceCrudService, ObjectMapper objectMapper) {
+        super(serviceCrudService, objectMapper, ServiceDTO.class);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.crud.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Remembers which clients wrote recently, so their reads go to the primary until the replicas
+ * caught up. The client of the current thread is bound per request (see RoutingClientFilter).
+ */
+public class ReadYourWritesTracker {
+
+    private final ThreadLocal<String> currentClient = new ThreadLocal<>();
+    private final Cache<String, Boolean> recentWriters;
+    private final boolean enabled;
+
+    public ReadYourWritesTracker(Duration window) {
+        this.enabled = !window.isZero() && !window.isNegative();
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(enabled ? window : Duration.ofMillis(1))
+                .maximumSize(100_000)
+                .build();
+    }
+
+    public void bind(String client) {
+        currentClient.set(client);
+    }
+
+    public void clear() {
+        currentClient.remove();
+    }
+
+    public void recordWrite() {
+        String client = currentClient.get();
+        if (enabled && client != null)
+            recentWriters.put(client, Boolean.TRUE);
+    }
+
+    public boolean wroteRecently() {
+        String client = currentClient.get();
+        return enabled && client != null && recentWriters.getIfPresent(client) != null;
+    }
+}
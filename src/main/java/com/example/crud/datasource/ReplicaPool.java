@@ -0,0 +1,107 @@
+package com.example.crud.datasource;
+
+import com.example.crud.config.RoutingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The read replicas and how to pick one. Replicas failing the periodic health check are left
+ * out until they pass it again, and when none is healthy {@link #next()} returns null so the
+ * caller falls back to the primary.
+ */
+public class ReplicaPool implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaPool.class);
+
+    public static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public DataSource dataSource() {
+            return dataSource;
+        }
+
+        public boolean healthy() {
+            return healthy;
+        }
+
+        // Connections in use, only known for Hikari pools.
+        int activeConnections() {
+            return dataSource instanceof HikariDataSource hikari && hikari.getHikariPoolMXBean() != null
+                    ? hikari.getHikariPoolMXBean().getActiveConnections() : 0;
+        }
+    }
+
+    private final List<Replica> replicas;
+    private final RoutingProperties.Strategy strategy;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    public ReplicaPool(List<Replica> replicas, RoutingProperties.Strategy strategy) {
+        this.replicas = replicas;
+        this.strategy = strategy;
+    }
+
+    public Replica next() {
+        List<Replica> healthy = replicas.stream().filter(Replica::healthy).toList();
+        if (healthy.isEmpty())
+            return null;
+        return switch (strategy) {
+            case ROUND_ROBIN -> healthy.get(Math.floorMod(counter.getAndIncrement(), healthy.size()));
+            case LEAST_CONNECTIONS -> healthy.stream().min(Comparator.comparingInt(Replica::activeConnections)).orElseThrow();
+        };
+    }
+
+    public List<Replica> replicas() {
+        return replicas;
+    }
+
+    public long healthyCount() {
+        return replicas.stream().filter(Replica::healthy).count();
+    }
+
+    @Scheduled(fixedDelayString = "${products.routing.health-check-interval-ms:5000}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource().getConnection()) {
+                healthy = connection.isValid(2);
+            } catch (Exception e) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy)
+                log.warn("Replica {} is now {}", replica.name(), healthy ? "healthy" : "unhealthy, reads go elsewhere");
+            replica.healthy = healthy;
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas)
+            if (replica.dataSource() instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Could not close replica {}", replica.name(), e);
+                }
+            }
+    }
+}
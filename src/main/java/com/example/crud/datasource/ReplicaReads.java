@@ -0,0 +1,40 @@
+package com.example.crud.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * The reads a replica may serve. Read-only transactions only leave the primary for what runs in here:
+ * a read that fills a cache (the Spring caches, the response cache, the second-level cache) must see the
+ * latest commit, or a stale row is kept, and served to every client, until the next write. A conditional
+ * GET validator may come from a replica only together with the body it is sent with, read on the same
+ * connection. Outside of routing (products.routing.enabled unset) this does nothing.
+ */
+public final class ReplicaReads {
+
+    private static final ThreadLocal<Boolean> allowed = new ThreadLocal<>();
+
+    private ReplicaReads() {
+    }
+
+    public static <T> T call(Supplier<T> read) {
+        boolean nested = allowed.get() != null;
+        allowed.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (!nested)
+                allowed.remove();
+        }
+    }
+
+    public static void run(Runnable read) {
+        call(() -> {
+            read.run();
+            return null;
+        });
+    }
+
+    static boolean allowed() {
+        return allowed.get() != null;
+    }
+}
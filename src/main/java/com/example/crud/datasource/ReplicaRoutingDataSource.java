@@ -0,0 +1,45 @@
+package com.example.crud.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions running in ReplicaReads to a replica and everything else to the primary.
+ * The transaction flags are only known once the transaction started, so this has to sit
+ * behind a LazyConnectionDataSourceProxy, which waits for the first statement to get a connection.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final ReplicaPool replicaPool;
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaPool replicaPool, ReadYourWritesTracker readYourWritesTracker) {
+        this.replicaPool = replicaPool;
+        this.readYourWritesTracker = readYourWritesTracker;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicaPool.replicas().forEach(replica -> targets.put(replica.name(), replica.dataSource()));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive())
+                readYourWritesTracker.recordWrite();
+            return PRIMARY;
+        }
+        if (!ReplicaReads.allowed() || readYourWritesTracker.wroteRecently())
+            return PRIMARY;
+        ReplicaPool.Replica replica = replicaPool.next();
+        return replica == null ? PRIMARY : replica.name();
+    }
+}
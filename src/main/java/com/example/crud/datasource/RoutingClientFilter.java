@@ -0,0 +1,33 @@
+package com.example.crud.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Binds the client of each request for read-your-writes routing.
+public class RoutingClientFilter extends OncePerRequestFilter {
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final String clientHeader;
+
+    public RoutingClientFilter(ReadYourWritesTracker readYourWritesTracker, String clientHeader) {
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.clientHeader = clientHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String client = request.getHeader(clientHeader);
+        readYourWritesTracker.bind(client != null && !client.isBlank() ? client : request.getRemoteAddr());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            readYourWritesTracker.clear();
+        }
+    }
+}
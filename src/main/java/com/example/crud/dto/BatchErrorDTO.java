@@ -0,0 +1,11 @@
+package com.example.crud.dto;
+
+import java.util.List;
+
+/**
+ * @param error    why the body could not be read any further
+ * @param statuses status of each item before the failing one, in order; those items were processed, the
+ *                 failing one and everything after it were not
+ */
+public record BatchErrorDTO(String error, List<Integer> statuses) {
+}
@@ -0,0 +1,7 @@
+package com.example.crud.dto;
+
+import java.util.List;
+
+// A keyset page of any catalogue entity, nextCursor is null on the last page.
+public record PageDTO<D>(List<D> items, String nextCursor) {
+}
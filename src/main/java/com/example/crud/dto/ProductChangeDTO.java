@@ -0,0 +1,13 @@
+package com.example.crud.dto;
+
+import com.example.crud.event.ProductChangedEvent;
+
+import java.time.Instant;
+
+/**
+ * @param sequence order of the change in this run of the feed, the SSE event id is epoch-sequence
+ * @param product  null for deletions
+ */
+public record ProductChangeDTO(long sequence, ProductChangedEvent.Type type, Long id, ProductDTO product,
+                               Instant committedAt) {
+}
@@ -1,18 +1,6 @@
 package com.example.crud.dto;
 
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
 import java.time.LocalDate;
 
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-@Builder
-public class ProductDTO {
-    private String name;
-    private float price;
-    private LocalDate date;
+public record ProductDTO(String name, float price, LocalDate date) {
 }
@@ -0,0 +1,17 @@
+package com.example.crud.dto;
+
+import java.util.List;
+
+/**
+ * @param accepted     products created
+ * @param rejected     rows that were not imported
+ * @param rejectedRows the first rejected rows, in order, up to products.import.max-reported-rejections
+ */
+public record ProductImportReportDTO(long accepted, long rejected, List<RejectedRow> rejectedRows) {
+
+    /**
+     * @param line line of the upload the row starts on, the CSV header being line 1
+     */
+    public record RejectedRow(long line, String reason) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.crud.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @param products found products by id, in the order they were asked for
+ * @param missing  requested ids that do not exist, in the same order
+ */
+public record ProductLookupDTO(Map<Long, ProductDTO> products, List<Long> missing) {
+}
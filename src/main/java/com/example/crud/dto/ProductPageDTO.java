@@ -0,0 +1,9 @@
+package com.example.crud.dto;
+
+import java.util.List;
+
+/**
+ * @param nextCursor null when there are no more pages
+ */
+public record ProductPageDTO(List<ProductDTO> products, String nextCursor) {
+}
@@ -0,0 +1,6 @@
+package com.example.crud.dto;
+
+import java.time.LocalDate;
+
+public record ProductUpdateDTO(Long id, String name, float price, LocalDate date) {
+}
@@ -0,0 +1,6 @@
+package com.example.crud.dto;
+
+import java.time.LocalDate;
+
+public record ServiceDTO(String name, float price, LocalDate date) {
+}
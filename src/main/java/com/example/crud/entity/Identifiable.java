@@ -0,0 +1,9 @@
+package com.example.crud.entity;
+
+// Entities served by the generic CRUD engine, Lombok's getter and setter implement it.
+public interface Identifiable {
+
+    Long getId();
+
+    void setId(Long id);
+}
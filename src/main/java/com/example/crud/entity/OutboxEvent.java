@@ -0,0 +1,39 @@
+package com.example.crud.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// A notification waiting to leave the service, written in the same transaction as the change itself.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "outbox_event")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name="aggregate_type", nullable = false)
+    private String aggregateType;
+
+    @Column(name="aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name="event_type", nullable = false)
+    private String eventType;
+
+    @Column(name="payload", length = 4000)
+    private String payload; // JSON
+
+    @Column(name="created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -1,11 +1,16 @@
 package com.example.crud.entity;
 
+import com.example.crud.config.CaffeineRegionFactory;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Data
@@ -13,11 +18,22 @@ import java.time.LocalDate;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "product")
-public class Product {
+// Read-write second-level cache: findById and the versioned updates are served from memory,
+// writes through the entity update the cached copy under a soft lock.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CaffeineRegionFactory.PRODUCT_REGION)
+// (column, id): each sortable column is walked in keyset order, the id breaking ties; name also serves exact and prefix lookups.
+@Table(name = "product", indexes = {
+        @Index(name = "idx_product_name_id", columnList = "name, id"),
+        @Index(name = "idx_product_price_id", columnList = "price, id"),
+        @Index(name = "idx_product_date_id", columnList = "date, id"),
+        @Index(name = "idx_product_updated_at_id", columnList = "updated_at, id")})
+public class Product implements Identifiable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // IDENTITY would disable JDBC insert batching, the pooled sequence hands out ids 50 at a time.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
 
     @Column(name="name")
@@ -29,6 +45,24 @@ public class Product {
     @Column(name="date")
     private LocalDate date;
 
+    // Compared by updates sent with If-Match, and by the entity path when products.optimistic-locking is on.
+    // Every write bumps it.
+    @Version
+    @Column(name="version")
+    private Long version;
+
+    // Set on insert and on every update, it backs Last-Modified and the catalog version.
+    @UpdateTimestamp
+    @Column(name="updated_at")
+    private Instant updatedAt;
+
+    public Product(Long id, String name, float price, LocalDate date) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.date = date;
+    }
+
     public Product(String name, float price, LocalDate date) {
         this.name = name;
         this.price = price;
@@ -14,15 +14,20 @@ import java.time.LocalDate;
 @Builder
 @Entity
 @Table(name = "service")
-public class Service {
+public class Service implements Identifiable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence as in Product, IDENTITY would disable JDBC insert batching.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "service_seq")
+    @SequenceGenerator(name = "service_seq", sequenceName = "service_seq", allocationSize = 50)
     private Long id;
+
     @Column(name="name")
     private String name;
+
     @Column(name="price")
     private float price;
+
     @Column(name="date")
     private LocalDate date;
 
@@ -0,0 +1,26 @@
+package com.example.crud.event;
+
+import com.example.crud.dto.ProductDTO;
+
+/**
+ * Published by the service layer on every product write, inside the writing transaction.
+ * Listeners that keep derived state (indexes, feeds...) should react after commit.
+ *
+ * @param product the new state, null for deletions
+ */
+public record ProductChangedEvent(Type type, Long id, ProductDTO product) {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    public static ProductChangedEvent created(Long id, ProductDTO product) {
+        return new ProductChangedEvent(Type.CREATED, id, product);
+    }
+
+    public static ProductChangedEvent updated(Long id, ProductDTO product) {
+        return new ProductChangedEvent(Type.UPDATED, id, product);
+    }
+
+    public static ProductChangedEvent deleted(Long id) {
+        return new ProductChangedEvent(Type.DELETED, id, null);
+    }
+}
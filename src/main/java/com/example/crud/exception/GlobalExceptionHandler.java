@@ -1,8 +1,13 @@
 package com.example.crud.exception;
 
+import com.example.crud.dto.BatchErrorDTO;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 @ControllerAdvice // Right now, it makes no sense
@@ -12,5 +17,44 @@ public class GlobalExceptionHandler {
     public ResponseEntity<String> handleResourceNotFoundException(ResourceNotFoundException ex /*, WebRequest request*/) {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
+
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<String> handleBadRequestException(BadRequestException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    // Earlier chunks of the batch are committed, so the client gets their statuses along with the error.
+    @ExceptionHandler(PartialBatchException.class)
+    public ResponseEntity<BatchErrorDTO> handlePartialBatchException(PartialBatchException ex) {
+        return ResponseEntity.badRequest().body(new BatchErrorDTO(ex.getMessage(), ex.getStatuses()));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        return new ResponseEntity<>("The product was modified concurrently, try again", HttpStatus.CONFLICT);
+    }
+
+    // If-Match named a version the product has moved past: the client has to read it again before writing.
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<String> handlePreconditionFailedException(PreconditionFailedException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<String> handleTooManyRequestsException(TooManyRequestsException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
+    // No database connection became available in time (Hikari connection-timeout), or the request was shed
+    // before asking for one. Either way the client can retry.
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class,
+            ServiceOverloadedException.class})
+    public ResponseEntity<String> handleConnectionUnavailable(RuntimeException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("The service is overloaded, try again later");
+    }
     //Other exceptions...
 }
@@ -0,0 +1,18 @@
+package com.example.crud.exception;
+
+import java.util.List;
+
+// A bulk request body broke off after some of its items were written: those have a status, the rest was not read.
+public class PartialBatchException extends BadRequestException {
+
+    private final List<Integer> statuses;
+
+    public PartialBatchException(String message, List<Integer> statuses) {
+        super(message);
+        this.statuses = statuses;
+    }
+
+    public List<Integer> getStatuses() {
+        return statuses;
+    }
+}
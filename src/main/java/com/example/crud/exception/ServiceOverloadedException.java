@@ -0,0 +1,5 @@
+package com.example.crud.exception;
+
+public class ServiceOverloadedException extends RuntimeException {
+    public ServiceOverloadedException(String message) {super(message);}
+}
@@ -0,0 +1,161 @@
+package com.example.crud.feed;
+
+import com.example.crud.dto.ProductChangeDTO;
+import com.example.crud.event.ProductChangedEvent;
+import com.example.crud.exception.BadRequestException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded, in-process log of the committed product changes, numbered from 1.
+ * Writers overwrite the oldest entry once it is full and never wait for readers:
+ * a reader that fell behind is told how far it can resume (see {@link Batch#resumedAt()}).
+ * The log does not survive a restart and numbering starts over, so event ids carry a random epoch
+ * drawn at startup: an id handed out by a previous run (or another node) is always taken as a gap,
+ * and the client resumes from the oldest change kept.
+ */
+@Component
+public class ProductChangeFeed implements MeterBinder {
+
+    /**
+     * @param changes   in sequence order, possibly empty when the wait timed out
+     * @param resumedAt the first sequence that could still be read, when the requested ones were dropped, otherwise 0
+     * @param next      where the following read should start
+     */
+    public record Batch(List<ProductChangeDTO> changes, long resumedAt, long next) {
+
+        public boolean hasGap() {
+            return resumedAt > 0;
+        }
+    }
+
+    // Sequence of an event id from another run, read() answers it with a gap.
+    public static final long UNKNOWN_SEQUENCE = -1;
+
+    private final String epoch = Long.toUnsignedString(new SecureRandom().nextLong(), 36);
+    private final ProductChangeDTO[] buffer;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final AtomicLong gaps = new AtomicLong();
+    private long nextSequence = 1;
+
+    public ProductChangeFeed(@Value("${products.changes.capacity:10000}") int capacity) {
+        this.buffer = new ProductChangeDTO[capacity];
+    }
+
+    // Only committed writes make it into the feed, fallbackExecution covers non-transactional callers.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        append(event);
+    }
+
+    public long append(ProductChangedEvent event) {
+        lock.lock();
+        try {
+            long sequence = nextSequence++;
+            buffer[index(sequence)] = new ProductChangeDTO(sequence, event.type(), event.id(), event.product(), Instant.now());
+            appended.signalAll();
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The SSE id of a change or gap: epoch-sequence.
+    public String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    /**
+     * Sequence of an event id of this run, UNKNOWN_SEQUENCE for an id of another run.
+     *
+     * @throws BadRequestException when it is not an event id
+     */
+    public long sequenceOf(String eventId) {
+        String id = eventId.trim();
+        int separator = id.lastIndexOf('-');
+        try {
+            long sequence = Long.parseLong(id.substring(separator + 1));
+            if (separator <= 0 || sequence < 0)
+                throw new BadRequestException("Invalid event id");
+            return id.substring(0, separator).equals(epoch) ? sequence : UNKNOWN_SEQUENCE;
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid event id");
+        }
+    }
+
+    /**
+     * Reads up to max changes starting at sequence from, waiting up to timeout for the first one.
+     * A from before the oldest change kept (UNKNOWN_SEQUENCE included) or past the end is treated like a dropped one.
+     */
+    public Batch read(long from, int max, long timeout, TimeUnit unit) throws InterruptedException {
+        lock.lock();
+        try {
+            long oldest = oldestSequence();
+            long resumedAt = 0;
+            if (from < oldest || from > nextSequence) {
+                resumedAt = oldest;
+                from = oldest;
+                gaps.incrementAndGet();
+            }
+            long nanos = unit.toNanos(timeout);
+            while (from == nextSequence && nanos > 0)
+                nanos = appended.awaitNanos(nanos);
+            // entries may have been overwritten while waiting
+            if (from < oldestSequence()) {
+                resumedAt = from = oldestSequence();
+                gaps.incrementAndGet();
+            }
+
+            long to = Math.min(nextSequence, from + max);
+            List<ProductChangeDTO> changes = new ArrayList<>((int) (to - from));
+            for (long sequence = from; sequence < to; sequence++)
+                changes.add(buffer[index(sequence)]);
+            return new Batch(changes, resumedAt, to);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Where a subscriber that only wants new changes starts.
+    public long nextSequence() {
+        lock.lock();
+        try {
+            return nextSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long oldestSequence() {
+        return Math.max(1, nextSequence - buffer.length);
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % buffer.length);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("products.changes.sequence", this, ProductChangeFeed::nextSequence)
+                .description("Sequence the next product change will get")
+                .register(registry);
+        FunctionCounter.builder("products.changes.gaps", gaps, AtomicLong::get)
+                .description("Reads that asked for changes no longer in the feed")
+                .register(registry);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.crud.feed;
+
+import com.example.crud.dto.ProductChangeDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes the change feed to SSE clients. Every subscriber reads the feed on its own virtual
+ * thread, so a slow client only delays itself: writers never wait, and once the client falls
+ * further behind than the feed capacity it gets a "gap" event and continues from the oldest change kept.
+ * With coalescing, every batch read keeps only the latest change of each product.
+ */
+@Component
+public class ProductChangeSubscriptions implements MeterBinder {
+
+    static final int BATCH_SIZE = 256;
+
+    private final ProductChangeFeed feed;
+    private final Duration heartbeat;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    public ProductChangeSubscriptions(ProductChangeFeed feed,
+                                      @Value("${products.changes.heartbeat:15s}") Duration heartbeat) {
+        this.feed = feed;
+        this.heartbeat = heartbeat;
+    }
+
+    /**
+     * @param from first sequence to send, null for only the changes to come; one that is no longer
+     *             (or never was) in the feed starts with a gap event
+     */
+    public void subscribe(SseEmitter emitter, Long from, boolean coalesce) {
+        long start = from == null ? feed.nextSequence() : from;
+        Subscription subscription = new Subscription(emitter, start, coalesce);
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+        executor.execute(subscription);
+    }
+
+    public int subscribers() {
+        return subscribers.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("products.changes.subscribers", subscribers, AtomicInteger::get)
+                .description("Clients connected to the product change feed")
+                .register(registry);
+    }
+
+    static List<ProductChangeDTO> coalesce(List<ProductChangeDTO> changes) {
+        Map<Long, ProductChangeDTO> latest = new LinkedHashMap<>();
+        for (ProductChangeDTO change : changes) {
+            latest.remove(change.id()); // keeps the map in order of the last change
+            latest.put(change.id(), change);
+        }
+        return new ArrayList<>(latest.values());
+    }
+
+    private class Subscription implements Runnable {
+
+        private final SseEmitter emitter;
+        private final boolean coalesce;
+        private long next;
+        private volatile boolean closed; // checked at least once per heartbeat
+
+        Subscription(SseEmitter emitter, long from, boolean coalesce) {
+            this.emitter = emitter;
+            this.next = from;
+            this.coalesce = coalesce;
+        }
+
+        @Override
+        public void run() {
+            subscribers.incrementAndGet();
+            try {
+                while (!closed) {
+                    ProductChangeFeed.Batch batch = feed.read(next, BATCH_SIZE, heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                    if (batch.hasGap())
+                        emitter.send(SseEmitter.event().name("gap").id(feed.eventId(batch.resumedAt() - 1))
+                                .data(Map.of("requested", next, "resumedAt", batch.resumedAt()), MediaType.APPLICATION_JSON));
+                    List<ProductChangeDTO> changes = coalesce ? coalesce(batch.changes()) : batch.changes();
+                    for (ProductChangeDTO change : changes)
+                        emitter.send(SseEmitter.event().name(change.type().name().toLowerCase(Locale.ROOT))
+                                .id(feed.eventId(change.sequence())).data(change, MediaType.APPLICATION_JSON));
+                    if (batch.changes().isEmpty() && !batch.hasGap())
+                        emitter.send(SseEmitter.event().comment("heartbeat")); // also finds out about gone clients
+                    next = batch.next();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // the client went away or the emitter already completed
+            } catch (InterruptedException e) {
+                emitter.complete();
+            } finally {
+                subscribers.decrementAndGet();
+            }
+        }
+
+        void close() {
+            closed = true;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.crud.mapper;
 
+import java.util.ArrayList;
 import java.util.List;
 
 
@@ -8,11 +9,18 @@ public abstract class Mapper<E,D> {
     public abstract D toDto(E entity);
     public abstract E toEntity(D dto);
 
+    // Plain loops into lists sized upfront: the backing array is allocated once and never grown or copied.
     public List<D> toDtos(List<E> entities){
-        return entities.stream().map(this::toDto).toList();
+        List<D> dtos = new ArrayList<>(entities.size());
+        for (E entity : entities)
+            dtos.add(toDto(entity));
+        return dtos;
     }
     public List<E> toEntities(List<D> dtos){
-        return dtos.stream().map(this::toEntity).toList();
+        List<E> entities = new ArrayList<>(dtos.size());
+        for (D dto : dtos)
+            entities.add(toEntity(dto));
+        return entities;
     }
 
 }
@@ -0,0 +1,28 @@
+package com.example.crud.mapper.imp;
+
+import com.example.crud.dto.ProductDTO;
+import com.example.crud.entity.Product;
+import com.example.crud.mapper.Mapper;
+import org.mapstruct.Builder;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+/**
+ * Same mapping as {@link ProductMapper}, with the method bodies generated by MapStruct at compile time.
+ * Builders are turned off so the generated code calls the constructor and setters directly.
+ * ProductMapper stays the one injected, ProductMapperBenchmark measures both.
+ */
+@org.mapstruct.Mapper(builder = @Builder(disableBuilder = true))
+public abstract class GeneratedProductMapper extends Mapper<Product, ProductDTO> {
+
+    public static final GeneratedProductMapper INSTANCE = Mappers.getMapper(GeneratedProductMapper.class);
+
+    @Override
+    public abstract ProductDTO toDto(Product entity);
+
+    @Override
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    public abstract Product toEntity(ProductDTO dto);
+}
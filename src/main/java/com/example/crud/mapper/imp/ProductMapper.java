@@ -5,6 +5,7 @@ import com.example.crud.mapper.Mapper;
 import com.example.crud.entity.Product;
 import org.springframework.stereotype.Component;
 
+// Direct constructor calls: one allocation per mapped object, no intermediate builder.
 @Component
 public class ProductMapper extends Mapper<Product, ProductDTO> {
 
@@ -12,22 +13,14 @@ public class ProductMapper extends Mapper<Product, ProductDTO> {
     public ProductDTO toDto(Product entity) {
         if(entity == null)
             return null;
-        return ProductDTO.builder()
-                .name(entity.getName())
-                .price(entity.getPrice())
-                .date(entity.getDate())
-                .build();
+        return new ProductDTO(entity.getName(), entity.getPrice(), entity.getDate());
     }
 
     @Override
     public Product toEntity(ProductDTO dto) {
         if(dto == null)
             return null;
-        return Product.builder()
-                .name(dto.getName())
-                .price(dto.getPrice())
-                .date(dto.getDate())
-                .build();
+        return new Product(dto.name(), dto.price(), dto.date());
     }
 
 }
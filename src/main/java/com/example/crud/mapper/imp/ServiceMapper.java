@@ -0,0 +1,25 @@
+package com.example.crud.mapper.imp;
+
+import com.example.crud.dto.ServiceDTO;
+import com.example.crud.entity.Service;
+import com.example.crud.mapper.Mapper;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ServiceMapper extends Mapper<Service, ServiceDTO> {
+
+    @Override
+    public ServiceDTO toDto(Service entity) {
+        if(entity == null)
+            return null;
+        return new ServiceDTO(entity.getName(), entity.getPrice(), entity.getDate());
+    }
+
+    @Override
+    public Service toEntity(ServiceDTO dto) {
+        if(dto == null)
+            return null;
+        return new Service(dto.name(), dto.price(), dto.date());
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.example.crud.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Records how many SQL statements each request ran and flags the ones over the budget,
+ * which is how N+1 regressions show up. Paths that are expected to run many statements
+ * (bulk endpoints) can be excluded.
+ */
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    private final SqlStatementCounter statementCounter;
+    private final MeterRegistry meterRegistry;
+    private final int maxStatements;
+    private final List<String> excludedPaths;
+
+    public SqlBudgetFilter(SqlStatementCounter statementCounter, MeterRegistry meterRegistry,
+                           int maxStatements, List<String> excludedPaths) {
+        this.statementCounter = statementCounter;
+        this.meterRegistry = meterRegistry;
+        this.maxStatements = maxStatements;
+        this.excludedPaths = excludedPaths;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return excludedPaths.stream().anyMatch(path::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        statementCounter.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = statementCounter.count();
+            statementCounter.clear();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+            DistributionSummary.builder("sql.statements.per.request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(statements);
+            if (statements > maxStatements) {
+                meterRegistry.counter("sql.budget.exceeded", "method", request.getMethod(), "uri", uri).increment();
+                log.warn("{} {} ran {} SQL statements, budget is {}", request.getMethod(), request.getRequestURI(),
+                        statements, maxStatements);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.crud.outbox;
+
+import com.example.crud.entity.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Default stand-in: the events only go to the application log.
+@Component
+@ConditionalOnProperty(name = "outbox.publisher", havingValue = "log", matchIfMissing = true)
+public class LoggingOutboxPublisher implements OutboxPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingOutboxPublisher.class);
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events)
+            log.info("Outbox event {} {} {} {}: {}", event.getId(), event.getAggregateType(),
+                    event.getAggregateId(), event.getEventType(), event.getPayload());
+    }
+}
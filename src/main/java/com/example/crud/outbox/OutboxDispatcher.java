@@ -0,0 +1,89 @@
+package com.example.crud.outbox;
+
+import com.example.crud.entity.OutboxEvent;
+import com.example.crud.repository.IOutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Drains the outbox in the background. Each batch is locked with SKIP LOCKED, published and
+ * deleted in one transaction, so every node can run a dispatcher: they split the pending rows
+ * instead of waiting on each other. A batch is published in id order, but there is no ordering
+ * across batches: two dispatchers may publish events of the same product in either order, and a
+ * failed batch is retried after later ones. Ids are handed out in blocks per node, so they do
+ * not give the commit order either: a consumer that needs the latest state of a product should
+ * treat an event as a hint and read the product back.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.dispatch.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private final IOutboxEventRepository outboxEventRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Counter published;
+    private final Counter failures;
+
+    public OutboxDispatcher(IOutboxEventRepository outboxEventRepository, OutboxPublisher outboxPublisher,
+                            TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                            @Value("${outbox.dispatch.batch-size:100}") int batchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxPublisher = outboxPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.published = meterRegistry.counter("outbox.published");
+        this.failures = meterRegistry.counter("outbox.failures");
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.dispatch.interval-ms:1000}")
+    public void dispatch() {
+        try {
+            // keep going while full batches come back, the next tick picks up the rest
+            int dispatched;
+            do {
+                dispatched = dispatchBatch();
+            } while (dispatched == batchSize);
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Outbox dispatch failed, the batch will be retried", e);
+        }
+    }
+
+    // Returns how many events were published.
+    int dispatchBatch() {
+        Integer count = transactionTemplate.execute(status -> {
+            List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(PageRequest.ofSize(batchSize));
+            if (batch.isEmpty())
+                return 0;
+            try {
+                outboxPublisher.publish(batch);
+            } catch (Exception e) {
+                throw new OutboxPublishException(e); // rolls back, the rows are unlocked for the next attempt
+            }
+            outboxEventRepository.deleteAllInBatch(batch);
+            return batch.size();
+        });
+        int dispatched = count == null ? 0 : count;
+        published.increment(dispatched);
+        return dispatched;
+    }
+
+    static class OutboxPublishException extends RuntimeException {
+        OutboxPublishException(Exception cause) {
+            super("Outbox publisher failed", cause);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.crud.outbox;
+
+import com.example.crud.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Sends outbox events to the outside world (a broker, a webhook...). Picked with outbox.publisher.
+ * Delivery is at least once: when publish throws, the whole batch stays in the outbox and is
+ * sent again later, so receivers should deduplicate on the event id.
+ */
+public interface OutboxPublisher {
+
+    void publish(List<OutboxEvent> events) throws Exception;
+}
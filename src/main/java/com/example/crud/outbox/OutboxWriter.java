@@ -0,0 +1,49 @@
+package com.example.crud.outbox;
+
+import com.example.crud.entity.OutboxEvent;
+import com.example.crud.event.ProductChangedEvent;
+import com.example.crud.repository.IOutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+
+/**
+ * Turns product changes into outbox rows. It runs synchronously inside the writing transaction
+ * (MANDATORY makes sure there is one), so the row commits or rolls back with the change and
+ * no network call is made while the transaction is open.
+ */
+@Component
+public class OutboxWriter {
+
+    static final String PRODUCT = "product";
+
+    private final IOutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter(IOutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onProductChanged(ProductChangedEvent event) {
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .aggregateType(PRODUCT)
+                    .aggregateId(event.id())
+                    .eventType(event.type().name())
+                    .payload(objectMapper.writeValueAsString(event))
+                    .createdAt(Instant.now())
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.crud.ratelimit;
+
+import com.example.crud.exception.ServiceOverloadedException;
+import com.example.crud.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits a request only if its client has a token left for the route (429 otherwise) and the
+ * concurrency limit has room (503 otherwise). The route is the controller method name.
+ * Streaming responses keep their concurrency slot until the async dispatch completes.
+ * The latency of untimed routes, slow by design, is left out of the concurrency limit.
+ */
+public class AdmissionInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String STARTED_AT = AdmissionInterceptor.class.getName() + ".startedAt";
+
+    private final RateLimiter rateLimiter;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final String apiKeyHeader;
+    private final Set<String> untimedRoutes;
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionInterceptor(RateLimiter rateLimiter, ConcurrencyLimiter concurrencyLimiter, String apiKeyHeader,
+                                Set<String> untimedRoutes, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.apiKeyHeader = apiKeyHeader;
+        this.untimedRoutes = untimedRoutes;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !(handler instanceof HandlerMethod handlerMethod))
+            return true; // async and error dispatches were admitted with the original request
+
+        String route = handlerMethod.getMethod().getName();
+        long waitNanos = rateLimiter.tryAcquire(client(request), route);
+        if (waitNanos > 0) {
+            rejected(route, "rate");
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            throw new TooManyRequestsException("Too many requests, try again later", retryAfterSeconds);
+        }
+        if (concurrencyLimiter != null) {
+            if (!concurrencyLimiter.tryAcquire()) {
+                rejected(route, "concurrency");
+                throw new ServiceOverloadedException("The service is overloaded, try again later");
+            }
+            request.setAttribute(STARTED_AT, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object startedAt = request.getAttribute(STARTED_AT);
+        if (startedAt != null) {
+            request.removeAttribute(STARTED_AT);
+            if (handler instanceof HandlerMethod handlerMethod && untimedRoutes.contains(handlerMethod.getMethod().getName()))
+                concurrencyLimiter.releaseUntimed();
+            else
+                concurrencyLimiter.release(System.nanoTime() - (long) startedAt);
+        }
+    }
+
+    private String client(HttpServletRequest request) {
+        String apiKey = request.getHeader(apiKeyHeader);
+        return apiKey != null && !apiKey.isBlank() ? apiKey : request.getRemoteAddr();
+    }
+
+    private void rejected(String route, String reason) {
+        if (meterRegistry != null)
+            Counter.builder("admission.rejected").description("Requests turned away before reaching the controller")
+                    .tag("route", route).tag("reason", reason).register(meterRegistry).increment();
+    }
+}
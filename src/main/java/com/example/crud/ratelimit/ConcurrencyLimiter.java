@@ -0,0 +1,81 @@
+package com.example.crud.ratelimit;
+
+import com.example.crud.config.AdmissionProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Adaptive cap on the requests in flight (AIMD). Requests over the limit are turned away right away,
+ * instead of queueing for a database connection until Hikari's connection-timeout.
+ */
+public class ConcurrencyLimiter implements MeterBinder {
+
+    private final AdmissionProperties.Concurrency properties;
+    private final long latencyThresholdNanos;
+    // Threads waiting on the connection pool: the limit is already past what the database takes.
+    private final BooleanSupplier congested;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+
+    public ConcurrencyLimiter(AdmissionProperties.Concurrency properties, BooleanSupplier congested) {
+        this.properties = properties;
+        this.latencyThresholdNanos = properties.latencyThreshold().toNanos();
+        this.congested = congested;
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(properties.initialLimit()));
+    }
+
+    public boolean tryAcquire() {
+        int limit = (int) limit();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit)
+                return false;
+            if (inFlight.compareAndSet(current, current + 1))
+                return true;
+        }
+    }
+
+    public void release(long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        if (latencyNanos > latencyThresholdNanos || congested.getAsBoolean())
+            updateLimit(limit -> limit * properties.backoffRatio());
+        else if (current * 2 >= limit()) // only grow while the limit is actually in use
+            updateLimit(limit -> limit + 1 / limit);
+    }
+
+    // For a request slow by design: its latency says nothing about the load, only pool waits are taken into account.
+    public void releaseUntimed() {
+        inFlight.decrementAndGet();
+        if (congested.getAsBoolean())
+            updateLimit(limit -> limit * properties.backoffRatio());
+    }
+
+    private void updateLimit(DoubleUnaryOperator update) {
+        limitBits.updateAndGet(bits -> {
+            double limit = update.applyAsDouble(Double.longBitsToDouble(bits));
+            return Double.doubleToLongBits(Math.max(properties.minLimit(), Math.min(properties.maxLimit(), limit)));
+        });
+    }
+
+    public double limit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("admission.concurrency.limit", this, ConcurrencyLimiter::limit)
+                .description("Requests allowed in flight at once").register(registry);
+        Gauge.builder("admission.concurrency.in.flight", this, ConcurrencyLimiter::inFlight)
+                .description("Requests in flight").register(registry);
+    }
+}
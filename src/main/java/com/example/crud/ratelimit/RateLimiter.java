@@ -0,0 +1,52 @@
+package com.example.crud.ratelimit;
+
+import com.example.crud.config.AdmissionProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * One {@link TokenBucket} per client and route, created on first use. The map is bounded: past maxClients
+ * the least used buckets are evicted, a returning client then starts with a full bucket.
+ */
+public class RateLimiter implements MeterBinder {
+
+    private record Key(String client, String route) {
+    }
+
+    private final AdmissionProperties properties;
+    private final Cache<Key, TokenBucket> buckets;
+    private final LongSupplier clock;
+
+    public RateLimiter(AdmissionProperties properties, LongSupplier clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxClients())
+                .expireAfterAccess(properties.idleTimeout())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @return 0 when the request may go on, otherwise how long the client should wait, in nanoseconds
+     */
+    public long tryAcquire(String client, String route) {
+        AdmissionProperties.Limit limit = properties.limitFor(route);
+        if (limit.permitsPerSecond() <= 0)
+            return 0;
+        long now = clock.getAsLong();
+        TokenBucket bucket = buckets.get(new Key(client, route),
+                key -> new TokenBucket(limit.permitsPerSecond(), limit.burst(), now));
+        return bucket.tryAcquire(now);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, buckets, "rateLimitBuckets");
+    }
+}
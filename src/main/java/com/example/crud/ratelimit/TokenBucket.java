@@ -0,0 +1,37 @@
+package com.example.crud.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket kept as a single timestamp (GCRA): the instant at which every token taken so far is back.
+ * Taking a token pushes it one interval further; the bucket is empty once it is more than burst intervals ahead.
+ * One CAS per permit, no lock and no allocation.
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong refilledAt;
+
+    public TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.capacityNanos = intervalNanos * Math.max(1, burst);
+        this.refilledAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * @return 0 when a token was taken, otherwise how long until the next one, in nanoseconds
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = refilledAt.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long ahead = next - nowNanos;
+            if (ahead > capacityNanos)
+                return ahead - capacityNanos;
+            if (refilledAt.compareAndSet(current, next))
+                return 0;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.crud.repository;
+
+import java.time.Instant;
+
+// Changes whenever a product is created, updated or deleted.
+public record CatalogVersionView(long count, Instant lastUpdatedAt) {
+
+    public String etag() {
+        return count + "-" + (lastUpdatedAt == null ? 0 : lastUpdatedAt.toEpochMilli());
+    }
+}
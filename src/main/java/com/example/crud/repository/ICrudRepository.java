@@ -0,0 +1,39 @@
+package com.example.crud.repository;
+
+import com.example.crud.entity.Identifiable;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * Queries shared by every entity of the catalogue, #{#entityName} resolves to the entity of the
+ * extending repository. Specifications are there for filtered reads.
+ */
+@NoRepositoryBean
+public interface ICrudRepository<E extends Identifiable> extends JpaRepository<E, Long>, JpaSpecificationExecutor<E> {
+
+    // Keyset pagination: only the page size is read, no OFFSET and no count query.
+    // The ids are needed for the cursor, the entities are loaded read-only so Hibernate keeps no snapshot of them.
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query("SELECT e FROM #{#entityName} e WHERE e.id > :afterId ORDER BY e.id")
+    public List<E> findNextPage(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT e.id FROM #{#entityName} e WHERE e.id IN :ids")
+    public List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Single statement delete, the affected row count tells whether the entity existed.
+    @Modifying
+    @Query("DELETE FROM #{#entityName} e WHERE e.id = :id")
+    public int deleteEntityById(@Param("id") Long id);
+}
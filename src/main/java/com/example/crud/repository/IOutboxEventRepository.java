@@ -0,0 +1,25 @@
+package com.example.crud.repository;
+
+import com.example.crud.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+import static org.hibernate.cfg.AvailableSettings.JAKARTA_LOCK_TIMEOUT;
+
+@Repository
+public interface IOutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // SELECT ... FOR UPDATE SKIP LOCKED (lock timeout -2): rows claimed by another node are skipped, not waited for.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e ORDER BY e.id")
+    public List<OutboxEvent> lockNextBatch(Pageable pageable);
+}
@@ -1,16 +1,87 @@
 package com.example.crud.repository;
 
+import com.example.crud.config.CaffeineRegionFactory;
+import com.example.crud.dto.ProductDTO;
 import com.example.crud.entity.Product;
-import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+// findNextPage and findExistingIds come from ICrudRepository, findPage from the criteria fragment.
 @Repository
-public interface IProductRepository extends JpaRepository<Product, Long> {
+public interface IProductRepository extends ICrudRepository<Product>, ProductPageRepository {
+
+    // Read paths build the DTOs straight from the columns: no managed entity, no dirty-checking snapshot, no mapper copy.
+    @Query("SELECT new com.example.crud.dto.ProductDTO(p.name, p.price, p.date) FROM Product p")
+    public List<ProductDTO> findAllProductDtos();
+
+    // Called outside of a service transaction, findById is read-only already through SimpleJpaRepository.
+    // In the query cache until the next write to the product table on this node: like productsByName, a write
+    // made by another instance is only seen once the entry expires (products.second-level-cache.expire-after-write).
+    @Transactional(readOnly = true)
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = CaffeineRegionFactory.PRODUCT_QUERY_REGION)})
+    @Query("SELECT new com.example.crud.dto.ProductDTO(p.name, p.price, p.date) FROM Product p WHERE p.name = :name")
+    public List<ProductDTO> findProductDtosByName(@Param("name") String name);
+
+    // Multi-get, the caller keeps each IN list to a bounded size.
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.example.crud.repository.ProductRowView(p.id, p.name, p.price, p.date, p.updatedAt) FROM Product p WHERE p.id IN :ids")
+    public List<ProductRowView> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Single statement writes, the affected row count tells whether the product exists.
+    @Modifying
+    @Query("UPDATE Product p SET p.name = :name, p.price = :price, p.date = :date, p.version = p.version + 1, p.updatedAt = instant WHERE p.id = :id")
+    public int updateById(@Param("id") Long id, @Param("name") String name,
+                          @Param("price") float price, @Param("date") LocalDate date);
+
+    // Applied only while the row is still at the version the client read, see ProductService.updateProduct.
+    @Modifying
+    @Query("UPDATE Product p SET p.name = :name, p.price = :price, p.date = :date, p.version = p.version + 1, p.updatedAt = instant WHERE p.id = :id AND p.version = :version")
+    public int updateByIdAndVersion(@Param("id") Long id, @Param("version") long version, @Param("name") String name,
+                                    @Param("price") float price, @Param("date") LocalDate date);
+
+    @Modifying
+    @Query("DELETE FROM Product p WHERE p.id = :id")
+    public int deleteProductById(@Param("id") Long id);
+
+    // Conditional GETs only need these, the row itself is not hydrated. Never cached: a validator has to
+    // reflect writes made by every instance, see ProductResponseCache.getProduct.
+    @Query("SELECT new com.example.crud.repository.ProductVersionView(p.id, p.version, p.updatedAt) FROM Product p WHERE p.id = :id")
+    public Optional<ProductVersionView> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT new com.example.crud.repository.CatalogVersionView(COUNT(p), MAX(p.updatedAt)) FROM Product p")
+    public CatalogVersionView findCatalogVersion();
+
+    // The body to cache under an ETag comes with the version of the same row, also never cached.
+    @Query("SELECT new com.example.crud.repository.VersionedProductView(p.id, p.name, p.price, p.date, p.version, p.updatedAt) FROM Product p WHERE p.id = :id")
+    public Optional<VersionedProductView> findVersionedById(@Param("id") Long id);
+
+    // Forward-only cursor, has to be consumed inside a transaction and closed afterwards.
+    // Nothing is added to the persistence context, so it stays flat however many rows go by.
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.example.crud.dto.ProductDTO(p.name, p.price, p.date) FROM Product p ORDER BY p.id")
+    public Stream<ProductDTO> streamAllProductDtos();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.crud.repository.ProductNameView(p.id, p.name) FROM Product p")
+    public Stream<ProductNameView> streamNames();
 
-    @Query("SELECT p FROM Product p WHERE p.name = :name")
-    public List<Product> findByName(@Param("name") String name);
+    // Catch-up of the name index, a range scan of idx_product_updated_at_id.
+    @Query("SELECT new com.example.crud.repository.ProductNameView(p.id, p.name) FROM Product p WHERE p.updatedAt >= :since")
+    public List<ProductNameView> findNamesUpdatedSince(@Param("since") Instant since);
 }
@@ -0,0 +1,8 @@
+package com.example.crud.repository;
+
+import com.example.crud.entity.Service;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IServiceRepository extends ICrudRepository<Service> {
+}
@@ -0,0 +1,17 @@
+package com.example.crud.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Optional bounds of a product listing, all inclusive; null means unbounded.
+ *
+ * @param namePrefix case sensitive, matched with LIKE 'prefix%' so the name index can serve it
+ */
+public record ProductFilter(Float minPrice, Float maxPrice, LocalDate fromDate, LocalDate toDate, String namePrefix) {
+
+    public static final ProductFilter NONE = new ProductFilter(null, null, null, null, null);
+
+    public boolean isEmpty() {
+        return NONE.equals(this);
+    }
+}
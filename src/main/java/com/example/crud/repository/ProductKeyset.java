@@ -0,0 +1,41 @@
+package com.example.crud.repository;
+
+import com.example.crud.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position after the last product of a sorted page: its sort value and its id, which breaks ties.
+ * Encoded as an opaque cursor that is only valid for the same sort and direction.
+ */
+public record ProductKeyset(ProductSort sort, boolean descending, Comparable<?> value, Long id) {
+
+    private static final String PREFIX = "k";
+
+    public static ProductKeyset after(ProductSort sort, boolean descending, ProductRowView row) {
+        return new ProductKeyset(sort, descending, sort.valueOf(row), row.id());
+    }
+
+    // The value goes last since names may hold the separator; "n" marks a null value, "v" a present one.
+    public String encode() {
+        String encoded = String.join(":", PREFIX, sort.name(), descending ? "desc" : "asc", id.toString(),
+                value == null ? "n" : "v" + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(encoded.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductKeyset decode(String cursor, ProductSort sort, boolean descending) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 5);
+            if (parts.length != 5 || !parts[0].equals(PREFIX))
+                throw new BadRequestException("Invalid cursor");
+            if (!parts[1].equals(sort.name()) || !parts[2].equals(descending ? "desc" : "asc"))
+                throw new BadRequestException("The cursor belongs to another sort order");
+            Comparable<?> value = parts[4].equals("n") ? null : sort.parse(parts[4].substring(1));
+            return new ProductKeyset(sort, descending, value, Long.valueOf(parts[3]));
+        } catch (IllegalArgumentException | DateTimeParseException e) { // also covers NumberFormatException
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.crud.repository;
+
+// Just what the name index needs, without hydrating Product entities.
+public record ProductNameView(Long id, String name) {
+}
@@ -0,0 +1,16 @@
+package com.example.crud.repository;
+
+import com.example.crud.entity.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+// Criteria fragment of IProductRepository, for listings whose predicate and order are chosen per request.
+public interface ProductPageRepository {
+
+    /**
+     * Up to limit rows matching the specification, ordered by the sort column then id, nulls last.
+     * Rows are projected, no entity is loaded.
+     */
+    List<ProductRowView> findPage(Specification<Product> specification, ProductSort sort, boolean descending, int limit);
+}
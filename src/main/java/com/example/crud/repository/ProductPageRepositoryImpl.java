@@ -0,0 +1,44 @@
+package com.example.crud.repository;
+
+import com.example.crud.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+class ProductPageRepositoryImpl implements ProductPageRepository {
+
+    private final EntityManager entityManager;
+
+    ProductPageRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<ProductRowView> findPage(Specification<Product> specification, ProductSort sort, boolean descending, int limit) {
+        // Hibernate's builder, the JPA one can not place the nulls.
+        HibernateCriteriaBuilder cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        CriteriaQuery<ProductRowView> query = cb.createQuery(ProductRowView.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(cb.construct(ProductRowView.class,
+                root.get("id"), root.get("name"), root.get("price"), root.get("date"), root.get("updatedAt")));
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null)
+            query.where(predicate);
+
+        Order byId = descending ? cb.desc(root.get("id")) : cb.asc(root.get("id"));
+        if (sort == ProductSort.ID) {
+            query.orderBy(byId);
+        } else {
+            Order bySort = descending ? cb.desc(root.get(sort.attribute()), false) : cb.asc(root.get(sort.attribute()), false);
+            query.orderBy(bySort, byId);
+        }
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
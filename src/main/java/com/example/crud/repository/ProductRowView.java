@@ -0,0 +1,14 @@
+package com.example.crud.repository;
+
+import com.example.crud.dto.ProductDTO;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// A product with its id and modification time, for lookups that report which ids were found and for keyset cursors.
+public record ProductRowView(Long id, String name, float price, LocalDate date, Instant updatedAt) {
+
+    public ProductDTO toDto() {
+        return new ProductDTO(name, price, date);
+    }
+}
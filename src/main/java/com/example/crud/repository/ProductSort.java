@@ -0,0 +1,56 @@
+package com.example.crud.repository;
+
+import com.example.crud.exception.BadRequestException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.function.Function;
+
+/**
+ * Columns products can be listed by. Each one is backed by a (column, id) index, so a keyset page
+ * is a range scan of that index whatever the filter. Nullable columns sort their nulls last.
+ */
+public enum ProductSort {
+
+    ID("id", false, Long::valueOf, ProductRowView::id),
+    NAME("name", true, Function.identity(), ProductRowView::name),
+    PRICE("price", false, Float::valueOf, ProductRowView::price),
+    DATE("date", true, LocalDate::parse, ProductRowView::date),
+    UPDATED_AT("updatedAt", true, Instant::parse, ProductRowView::updatedAt);
+
+    private final String attribute;
+    private final boolean nullable;
+    private final Function<String, ?> parser;
+    private final Function<ProductRowView, ?> getter;
+
+    ProductSort(String attribute, boolean nullable, Function<String, ?> parser, Function<ProductRowView, ?> getter) {
+        this.attribute = attribute;
+        this.nullable = nullable;
+        this.parser = parser;
+        this.getter = getter;
+    }
+
+    public String attribute() {
+        return attribute;
+    }
+
+    public boolean nullable() {
+        return nullable;
+    }
+
+    public Comparable<?> valueOf(ProductRowView row) {
+        return (Comparable<?>) getter.apply(row);
+    }
+
+    Comparable<?> parse(String value) {
+        return (Comparable<?>) parser.apply(value);
+    }
+
+    // Takes the attribute name, as in sort=updatedAt.
+    public static ProductSort fromAttribute(String attribute) {
+        for (ProductSort sort : values())
+            if (sort.attribute.equalsIgnoreCase(attribute))
+                return sort;
+        throw new BadRequestException("Products can not be sorted by " + attribute);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.crud.repository;
+
+import com.example.crud.entity.Product;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Predicates of product listings, combined per request. Every one of them is sargable.
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> matching(ProductFilter filter) {
+        List<Specification<Product>> specifications = new ArrayList<>();
+        if (filter.minPrice() != null)
+            specifications.add((root, query, cb) -> cb.ge(root.get("price"), filter.minPrice()));
+        if (filter.maxPrice() != null)
+            specifications.add((root, query, cb) -> cb.le(root.get("price"), filter.maxPrice()));
+        if (filter.fromDate() != null)
+            specifications.add((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), filter.fromDate()));
+        if (filter.toDate() != null)
+            specifications.add((root, query, cb) -> cb.lessThanOrEqualTo(root.get("date"), filter.toDate()));
+        if (filter.namePrefix() != null && !filter.namePrefix().isEmpty())
+            specifications.add((root, query, cb) -> cb.like(root.get("name"), escapeLike(filter.namePrefix()) + "%", '\\'));
+        return Specification.allOf(specifications);
+    }
+
+    /**
+     * Rows after the keyset in (sort column, id) order, nulls of the sort column last:
+     * value >= v AND (value > v OR id > i) [OR value IS NULL], mirrored for descending pages.
+     * The leading range on the sort column is what lets the (column, id) index seek to the page.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Product> after(ProductKeyset keyset) {
+        return (root, query, cb) -> {
+            Path<Long> id = root.get("id");
+            Predicate idAfter = keyset.descending() ? cb.lessThan(id, keyset.id()) : cb.greaterThan(id, keyset.id());
+            if (keyset.sort() == ProductSort.ID)
+                return idAfter;
+
+            Path<Comparable> value = root.get(keyset.sort().attribute());
+            if (keyset.value() == null) // already within the nulls, ordered by id alone
+                return cb.and(cb.isNull(value), idAfter);
+
+            Comparable after = keyset.value();
+            Predicate seek = cb.and(
+                    keyset.descending() ? cb.lessThanOrEqualTo(value, after) : cb.greaterThanOrEqualTo(value, after),
+                    cb.or(keyset.descending() ? cb.lessThan(value, after) : cb.greaterThan(value, after), idAfter));
+            return keyset.sort().nullable() ? cb.or(seek, cb.isNull(value)) : seek;
+        };
+    }
+
+    static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
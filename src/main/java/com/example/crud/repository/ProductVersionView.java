@@ -0,0 +1,16 @@
+package com.example.crud.repository;
+
+import java.time.Instant;
+
+// Enough to validate a cached copy of one product.
+public record ProductVersionView(Long id, Long version, Instant updatedAt) {
+
+    // The version is bumped by every write path, so it identifies the content (the controller sends it as a weak ETag).
+    public String etag() {
+        return id + "-" + (version == null ? 0 : version);
+    }
+
+    public long lastModified() {
+        return updatedAt == null ? -1 : updatedAt.toEpochMilli();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.crud.repository;
+
+import com.example.crud.entity.Product;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Non-blocking reads of the product table over R2DBC, the same rows JPA maps to Product.
+ * Rows are emitted as the driver decodes them, so a slow subscriber slows the query down
+ * instead of piling rows up in memory.
+ */
+@Repository
+public class ReactiveProductRepository {
+
+    private static final String COLUMNS = "SELECT id, name, price, date, version, updated_at FROM product";
+    private static final int FETCH_SIZE = 500;
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveProductRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<Product> findAll() {
+        return databaseClient.sql(COLUMNS + " ORDER BY id")
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(ReactiveProductRepository::toProduct)
+                .all();
+    }
+
+    public Mono<Product> findById(Long id) {
+        return databaseClient.sql(COLUMNS + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveProductRepository::toProduct)
+                .one();
+    }
+
+    public Flux<Product> findByName(String name) {
+        return databaseClient.sql(COLUMNS + " WHERE name = :name")
+                .bind("name", name)
+                .map(ReactiveProductRepository::toProduct)
+                .all();
+    }
+
+    public Flux<Product> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty())
+            return Flux.empty();
+        return databaseClient.sql(COLUMNS + " WHERE id IN (:ids)")
+                .bind("ids", ids)
+                .map(ReactiveProductRepository::toProduct)
+                .all();
+    }
+
+    private static Product toProduct(Readable row) {
+        Product product = new Product(row.get("id", Long.class), row.get("name", String.class),
+                row.get("price", Float.class), row.get("date", LocalDate.class));
+        product.setVersion(row.get("version", Long.class));
+        return product;
+    }
+}
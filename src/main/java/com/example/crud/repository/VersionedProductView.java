@@ -0,0 +1,18 @@
+package com.example.crud.repository;
+
+import com.example.crud.dto.ProductDTO;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// A product with the validator of the very row it was read from.
+public record VersionedProductView(Long id, String name, float price, LocalDate date, Long version, Instant updatedAt) {
+
+    public ProductDTO toDto() {
+        return new ProductDTO(name, price, date);
+    }
+
+    public ProductVersionView toVersionView() {
+        return new ProductVersionView(id, version, updatedAt);
+    }
+}
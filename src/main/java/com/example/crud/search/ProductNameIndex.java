@@ -0,0 +1,236 @@
+package com.example.crud.search;
+
+import com.example.crud.event.ProductChangedEvent;
+import com.example.crud.exception.BadRequestException;
+import com.example.crud.repository.IProductRepository;
+import com.example.crud.repository.ProductNameView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of product names for case and accent insensitive exact/prefix lookups.
+ * Names live in a sorted set, so a prefix query is a range scan (what a trie would give us)
+ * and its cost depends on the page size, not on the size of the catalogue.
+ * Each node keeps its own copy. It is loaded at startup, follows the committed writes of this node right away,
+ * and catches up with the rest from the database: every sync interval it re-reads the names updated since the
+ * previous sync (an index range scan on updated_at, with an overlap for transactions still open then and for
+ * clocks apart), and every rebuild interval it is loaded again from scratch, which also drops the products
+ * deleted through other nodes. The rows of a page are read from the database, so such a product is left out
+ * of the results even before the rebuild.
+ */
+@Component
+public class ProductNameIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductNameIndex.class);
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final char SEPARATOR = '\u0000';
+
+    private record Entry(String key, long id) implements Comparable<Entry> {
+        @Override
+        public int compareTo(Entry other) {
+            int byKey = key.compareTo(other.key);
+            return byKey != 0 ? byKey : Long.compare(id, other.id);
+        }
+    }
+
+    public record Page(List<Long> ids, String nextCursor) {
+    }
+
+    // Swapped as a whole by a rebuild.
+    private static final class Names {
+        final NavigableSet<Entry> entries = new ConcurrentSkipListSet<>();
+        final Map<Long, String> keysById = new ConcurrentHashMap<>();
+    }
+
+    private final IProductRepository productRepository;
+    private final TransactionTemplate readTransaction;
+    private final Duration syncOverlap;
+    private volatile Names names = new Names();
+    // Changes committed while the load runs, applied once it is done. Null when not loading.
+    private List<ProductChangedEvent> pendingChanges;
+    // Start of the last load or sync, null before the first load.
+    private volatile Instant syncedAt;
+
+    public ProductNameIndex(IProductRepository productRepository, PlatformTransactionManager transactionManager,
+                            @Value("${products.search.index.sync-overlap:1m}") Duration syncOverlap) {
+        this.productRepository = productRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.syncOverlap = syncOverlap;
+    }
+
+    /**
+     * Readiness only turns to ACCEPTING_TRAFFIC once the ApplicationReadyEvent listeners returned, so a
+     * load balancer probing it holds traffic back until the index is full. Writes can still commit
+     * meanwhile: the snapshot read here may predate them, so they are held and applied after it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+        log.info("Product name index loaded with {} products", size());
+    }
+
+    // Searches keep using the previous copy until the new one is complete.
+    @Scheduled(fixedDelayString = "${products.search.index.rebuild-interval-ms:600000}",
+            initialDelayString = "${products.search.index.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        synchronized (this) {
+            pendingChanges = new ArrayList<>();
+        }
+        Instant startedAt = Instant.now();
+        try {
+            Names loaded = new Names();
+            readTransaction.executeWithoutResult(status -> {
+                try (Stream<ProductNameView> stored = productRepository.streamNames()) {
+                    stored.forEach(view -> put(loaded, view.id(), view.name()));
+                }
+            });
+            names = loaded;
+            syncedAt = startedAt;
+        } finally {
+            synchronized (this) {
+                pendingChanges.forEach(this::apply);
+                pendingChanges = null;
+            }
+        }
+    }
+
+    /**
+     * Applies the names written through other nodes since the previous sync. A row read here may be older than
+     * a change of this node applied meanwhile, the next sync reads it again and sets it right.
+     */
+    @Scheduled(fixedDelayString = "${products.search.index.sync-interval-ms:5000}",
+            initialDelayString = "${products.search.index.sync-interval-ms:5000}")
+    public void sync() {
+        Instant since = syncedAt;
+        if (since == null)
+            return; // not loaded yet
+        Instant startedAt = Instant.now();
+        List<ProductNameView> updated = readTransaction.execute(status ->
+                productRepository.findNamesUpdatedSince(since.minus(syncOverlap)));
+        synchronized (this) {
+            if (pendingChanges != null)
+                return; // a rebuild is running, it reads them all anyway
+            updated.forEach(view -> put(view.id(), view.name()));
+        }
+        syncedAt = startedAt;
+    }
+
+    // fallbackExecution: writes done outside of a transaction are indexed right away
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        if (pendingChanges != null)
+            pendingChanges.add(event);
+        else
+            apply(event);
+    }
+
+    private void apply(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.Type.DELETED)
+            remove(event.id());
+        else
+            put(event.id(), event.product().name());
+    }
+
+    public void put(Long id, String name) {
+        put(names, id, name);
+    }
+
+    private static void put(Names names, Long id, String name) {
+        String key = normalize(name);
+        String previous = names.keysById.put(id, key);
+        if (previous != null && !previous.equals(key))
+            names.entries.remove(new Entry(previous, id));
+        names.entries.add(new Entry(key, id));
+    }
+
+    public void remove(Long id) {
+        Names current = names;
+        String previous = current.keysById.remove(id);
+        if (previous != null)
+            current.entries.remove(new Entry(previous, id));
+    }
+
+    public int size() {
+        return names.keysById.size();
+    }
+
+    /**
+     * @param prefix true to match names starting with the query, false to match the whole name
+     * @param cursor nextCursor of the previous page, null for the first one
+     */
+    public Page search(String query, boolean prefix, String cursor, int limit) {
+        String key = normalize(query);
+        Entry from = new Entry(key, Long.MIN_VALUE);
+        boolean fromInclusive = true;
+        if (cursor != null && !cursor.isBlank()) {
+            Entry after = decodeCursor(cursor);
+            if (after.compareTo(from) > 0) {
+                from = after;
+                fromInclusive = false;
+            }
+        }
+        Entry to = prefix ? new Entry(key + Character.MAX_VALUE, Long.MIN_VALUE) : new Entry(key, Long.MAX_VALUE);
+        if (from.compareTo(to) > 0)
+            return new Page(List.of(), null);
+
+        NavigableSet<Entry> range = names.entries.subSet(from, fromInclusive, to, !prefix);
+        List<Long> ids = new ArrayList<>(limit);
+        Iterator<Entry> iterator = range.iterator();
+        Entry last = null;
+        while (ids.size() < limit && iterator.hasNext()) {
+            last = iterator.next();
+            ids.add(last.id());
+        }
+        String nextCursor = last != null && iterator.hasNext() ? encodeCursor(last) : null;
+        return new Page(ids, nextCursor);
+    }
+
+    static String normalize(String name) {
+        if (name == null)
+            return "";
+        String withoutAccents = DIACRITICS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        return withoutAccents.toLowerCase(Locale.ROOT).trim();
+    }
+
+    private static String encodeCursor(Entry entry) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((entry.key() + SEPARATOR + entry.id()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Entry decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf(SEPARATOR);
+            if (separator < 0)
+                throw new BadRequestException("Invalid cursor");
+            return new Entry(decoded.substring(0, separator), Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.crud.service;
+
+import com.example.crud.entity.Identifiable;
+import com.example.crud.exception.BadRequestException;
+import com.example.crud.exception.PartialBatchException;
+import com.example.crud.mapper.Mapper;
+import com.example.crud.repository.ICrudRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Consumes items lazily and writes them in chunks, one transaction per chunk, so Hibernate can
+ * group the statements into JDBC batches and the persistence context is cleared between chunks.
+ * The writer returns one HTTP-like status per item of its chunk; a chunk that fails is rolled back
+ * as a whole and all its items get 500, previous chunks stay committed.
+ * When the input itself fails (a malformed element), the items read before it are still written and
+ * the failure is rethrown: the input is processed exactly up to the element that broke it.
+ * afterChunk runs once each chunk's transaction has ended, committed or not, so caches over the
+ * written rows are dropped for what did commit even when a later chunk or the input fails.
+ */
+class ChunkedWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(ChunkedWriter.class);
+
+    static final int CREATED = HttpStatus.CREATED.value();
+    static final int UPDATED = HttpStatus.OK.value();
+    static final int DELETED = HttpStatus.NO_CONTENT.value();
+    static final int INVALID = HttpStatus.BAD_REQUEST.value();
+    static final int NOT_FOUND = HttpStatus.NOT_FOUND.value();
+    static final int FAILED = HttpStatus.INTERNAL_SERVER_ERROR.value();
+
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final int chunkSize;
+    private final String itemName;
+    private final Runnable afterChunk;
+
+    ChunkedWriter(TransactionTemplate transactionTemplate, EntityManager entityManager, int chunkSize, String itemName,
+                  Runnable afterChunk) {
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.chunkSize = chunkSize;
+        this.itemName = itemName;
+        this.afterChunk = afterChunk;
+    }
+
+    <T> List<Integer> write(Iterator<T> items, Function<List<T>, int[]> writer) {
+        List<Integer> statuses = new ArrayList<>();
+        try {
+            write(items, writer, chunkStatuses -> {
+                for (int status : chunkStatuses)
+                    statuses.add(status);
+            });
+        } catch (BadRequestException e) {
+            throw new PartialBatchException(e.getMessage(), statuses);
+        }
+        return statuses;
+    }
+
+    // Hands the statuses over chunk by chunk instead of collecting them, for inputs too big to keep one status per item.
+    <T> void write(Iterator<T> items, Function<List<T>, int[]> writer, Consumer<int[]> onChunk) {
+        List<T> chunk = new ArrayList<>(chunkSize);
+        while (true) {
+            try {
+                if (!items.hasNext())
+                    break;
+                chunk.add(items.next());
+            } catch (RuntimeException e) {
+                if (!chunk.isEmpty())
+                    onChunk.accept(writeChunk(chunk, writer));
+                throw e;
+            }
+            if (chunk.size() == chunkSize) {
+                onChunk.accept(writeChunk(chunk, writer));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty())
+            onChunk.accept(writeChunk(chunk, writer));
+    }
+
+    // Chunk writers shared by the services: null items are INVALID, onCreated sees each entity once it has its id.
+    static <E extends Identifiable, D> int[] createChunk(List<D> chunk, Mapper<E, D> mapper, ICrudRepository<E> repository,
+                                                         Consumer<E> onCreated) {
+        int[] statuses = new int[chunk.size()];
+        List<E> entities = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            D dto = chunk.get(i);
+            if (dto == null) {
+                statuses[i] = INVALID;
+            } else {
+                entities.add(mapper.toEntity(dto));
+                statuses[i] = CREATED;
+            }
+        }
+        repository.saveAll(entities);
+        // Ids come from the pooled sequence at persist time, before the inserts are flushed.
+        entities.forEach(onCreated);
+        return statuses;
+    }
+
+    static int[] deleteChunk(List<Long> chunk, ICrudRepository<?> repository, Consumer<Long> onDeleted) {
+        Set<Long> existing = new HashSet<>(repository.findExistingIds(
+                chunk.stream().filter(Objects::nonNull).collect(Collectors.toSet())));
+        repository.deleteAllByIdInBatch(existing); // single DELETE ... WHERE id IN (...)
+        existing.forEach(onDeleted);
+
+        int[] statuses = new int[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            Long id = chunk.get(i);
+            statuses[i] = id == null ? INVALID : existing.contains(id) ? DELETED : NOT_FOUND;
+        }
+        return statuses;
+    }
+
+    private <T> int[] writeChunk(List<T> chunk, Function<List<T>, int[]> writer) {
+        try {
+            return transactionTemplate.execute(status -> {
+                int[] result = writer.apply(chunk);
+                entityManager.flush();
+                entityManager.clear(); // otherwise the persistence context grows with every chunk
+                return result;
+            });
+        } catch (DataAccessException | PersistenceException e) {
+            log.warn("Batch chunk of {} {} failed", chunk.size(), itemName, e);
+            int[] chunkStatuses = new int[chunk.size()];
+            Arrays.fill(chunkStatuses, FAILED);
+            return chunkStatuses;
+        } finally {
+            afterChunk.run();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.crud.service;
+
+import com.example.crud.cache.WriteGenerations;
+import com.example.crud.dto.PageDTO;
+import com.example.crud.entity.Identifiable;
+import com.example.crud.exception.ResourceNotFoundException;
+import com.example.crud.mapper.Mapper;
+import com.example.crud.repository.ICrudRepository;
+import com.example.crud.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.persistence.EntityManager;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * CRUD over a catalogue entity and its DTO, with the read and write paths tuned for products:
+ * keyset pages read-only, single reads cached with concurrent misses coalesced, chunked batch writes.
+ * Subclasses pick the repository, mapper and cache, and add their own queries.
+ * Transactions are opened through TransactionTemplate so that callers waiting on a coalesced lookup
+ * hold no connection, and the cache is only touched once the write has committed.
+ * Updates merge the whole DTO onto the stored row.
+ */
+@Observed(name = "crud.service")
+public abstract class CrudService<E extends Identifiable, D> implements MeterBinder {
+
+    protected final ICrudRepository<E> repository;
+    protected final Mapper<E, D> mapper;
+    private final String entityName;
+    private final Cache cache;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readTransaction;
+    private final ChunkedWriter chunkedWriter;
+    private final SingleFlight<Long, Optional<D>> lookups;
+    // A DTO loaded before a write committed must not be cached after it, see WriteGenerations.
+    private final WriteGenerations generations = new WriteGenerations();
+
+    /**
+     * @param cache single reads by id, null to not cache them
+     */
+    protected CrudService(String entityName, ICrudRepository<E> repository, Mapper<E, D> mapper, Cache cache,
+                          TransactionTemplate transactionTemplate, EntityManager entityManager, int chunkSize) {
+        this.entityName = entityName;
+        this.repository = repository;
+        this.mapper = mapper;
+        this.cache = cache != null ? cache : new NoOpCache(entityName);
+        this.transactionTemplate = transactionTemplate;
+        this.readTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readTransaction.setReadOnly(true);
+        this.chunkedWriter = new ChunkedWriter(transactionTemplate, entityManager, chunkSize, entityName, this::changedAll);
+        this.lookups = new SingleFlight<>(this.cache.getName(), SingleFlight.MAX_IN_FLIGHT_LOOKUPS);
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    public PageDTO<D> getPage(String cursor, int size) {
+        return readTransaction.execute(status -> KeysetPages.nextPage(repository, mapper, cursor, size));
+    }
+
+    // Misses are not cached, the id may be created later on.
+    @SuppressWarnings("unchecked")
+    public Optional<D> getById(Long id) {
+        Cache.ValueWrapper cached = cache.get(id);
+        if (cached != null)
+            return Optional.ofNullable((D) cached.get());
+
+        long loadedAt = generations.stamp(id);
+        Optional<D> dto = lookups.execute(id, () -> readTransaction.execute(status ->
+                repository.findById(id).map(mapper::toDto)));
+        dto.ifPresent(found -> generations.put(cache, id, found, loadedAt));
+        return dto;
+    }
+
+    public D create(D dto) {
+        E entity = transactionTemplate.execute(status -> repository.save(mapper.toEntity(dto)));
+        changed(entity.getId());
+        return mapper.toDto(entity);
+    }
+
+    public D update(Long id, D dto) {
+        E entity = transactionTemplate.execute(status -> {
+            repository.findById(id).orElseThrow(this::notFound);
+            E details = mapper.toEntity(dto);
+            details.setId(id);
+            return repository.save(details); // merged into the instance loaded above, no second SELECT
+        });
+        changed(id);
+        return mapper.toDto(entity);
+    }
+
+    public void delete(Long id) {
+        int deleted = transactionTemplate.execute(status -> repository.deleteEntityById(id));
+        if (deleted == 0)
+            throw notFound();
+        changed(id);
+    }
+
+    // The cache is cleared after every chunk, see changedAll.
+    public List<Integer> createAll(Iterator<D> dtos) {
+        return chunkedWriter.write(dtos, chunk -> ChunkedWriter.createChunk(chunk, mapper, repository, entity -> { }));
+    }
+
+    public List<Integer> deleteAll(Iterator<Long> ids) {
+        return chunkedWriter.write(ids, chunk -> ChunkedWriter.deleteChunk(chunk, repository, id -> { }));
+    }
+
+    // Evicted rather than refreshed, so two racing updates can not leave the older one cached. The lookup is
+    // forgotten before the generation moves, so no caller can stamp the new generation and still join it.
+    protected void changed(Long id) {
+        lookups.forget(id);
+        generations.changed(id);
+        cache.evict(id);
+    }
+
+    // A batch chunk touches too many keys to evict them one by one. Runs after each chunk's transaction,
+    // so the rows of committed chunks are never left cached when a later one or the request body fails.
+    protected void changedAll() {
+        lookups.forgetAll();
+        generations.changedAll();
+        cache.clear();
+    }
+
+    private ResourceNotFoundException notFound() {
+        return new ResourceNotFoundException(entityName + " not found");
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        lookups.bindTo(registry);
+    }
+}
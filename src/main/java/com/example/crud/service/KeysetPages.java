@@ -0,0 +1,40 @@
+package com.example.crud.service;
+
+import com.example.crud.dto.PageDTO;
+import com.example.crud.entity.Identifiable;
+import com.example.crud.mapper.Mapper;
+import com.example.crud.repository.ICrudRepository;
+import com.example.crud.util.IdCursor;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+/**
+ * Page sizes of every paged read, and the keyset page by id shared by the entity services.
+ */
+public final class KeysetPages {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private KeysetPages() {
+    }
+
+    static int pageSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+
+    // Runs in the caller's read-only transaction.
+    static <E extends Identifiable, D> PageDTO<D> nextPage(ICrudRepository<E> repository, Mapper<E, D> mapper,
+                                                           String cursor, int size) {
+        int pageSize = pageSize(size);
+        // One extra row tells us whether there is a next page without a count query.
+        List<E> entities = repository.findNextPage(IdCursor.afterId(cursor), PageRequest.ofSize(pageSize + 1));
+        String nextCursor = null;
+        if (entities.size() > pageSize) {
+            entities = entities.subList(0, pageSize);
+            nextCursor = IdCursor.encode(entities.get(pageSize - 1).getId());
+        }
+        return new PageDTO<>(mapper.toDtos(entities), nextCursor);
+    }
+}
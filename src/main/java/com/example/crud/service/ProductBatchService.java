@@ -0,0 +1,113 @@
+package com.example.crud.service;
+
+import com.example.crud.config.CacheConfig;
+import com.example.crud.dto.ProductDTO;
+import com.example.crud.dto.ProductUpdateDTO;
+import com.example.crud.entity.Product;
+import com.example.crud.event.ProductChangedEvent;
+import com.example.crud.mapper.imp.ProductMapper;
+import com.example.crud.repository.IProductRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import io.micrometer.observation.annotation.Observed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.example.crud.service.ChunkedWriter.*;
+
+/**
+ * Bulk writes for products, in chunks through {@link ChunkedWriter}. The result holds one
+ * HTTP-like status per item, in order. A chunk touches too many keys to evict them one by one, so the product
+ * caches are cleared after each chunk's transaction: rows of committed chunks are not left cached when the
+ * batch fails later on.
+ */
+@Observed(name = "product.service")
+@Service
+public class ProductBatchService {
+
+    private final IProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final ChunkedWriter chunkedWriter;
+
+    public ProductBatchService(IProductRepository productRepository, ProductMapper productMapper,
+                               TransactionTemplate transactionTemplate, EntityManager entityManager,
+                               ApplicationEventPublisher eventPublisher, CacheManager cacheManager,
+                               @Value("${products.batch.chunk-size:1000}") int chunkSize) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
+        this.chunkedWriter = new ChunkedWriter(transactionTemplate, entityManager, chunkSize, "products", this::clearCaches);
+    }
+
+    public List<Integer> createProducts(Iterator<ProductDTO> productDTOs) {
+        return chunkedWriter.write(productDTOs, this::createChunk);
+    }
+
+    // Same as above with the statuses of each chunk handed to onChunk once it is written, nothing kept per item.
+    public void createProducts(Iterator<ProductDTO> productDTOs, Consumer<int[]> onChunk) {
+        chunkedWriter.write(productDTOs, this::createChunk, onChunk);
+    }
+
+    private int[] createChunk(List<ProductDTO> chunk) {
+        return ChunkedWriter.createChunk(chunk, productMapper, productRepository, product -> eventPublisher.publishEvent(
+                ProductChangedEvent.created(product.getId(), productMapper.toDto(product))));
+    }
+
+    public List<Integer> updateProducts(Iterator<ProductUpdateDTO> productUpdates) {
+        return chunkedWriter.write(productUpdates, chunk -> {
+            Set<Long> ids = chunk.stream().filter(Objects::nonNull).map(ProductUpdateDTO::id)
+                    .filter(Objects::nonNull).collect(Collectors.toSet());
+            // One IN query for the whole chunk instead of a findById per item.
+            Map<Long, Product> products = productRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+            int[] statuses = new int[chunk.size()];
+            for (int i = 0; i < chunk.size(); i++) {
+                ProductUpdateDTO update = chunk.get(i);
+                if (update == null || update.id() == null) {
+                    statuses[i] = INVALID;
+                    continue;
+                }
+                Product product = products.get(update.id());
+                if (product == null) {
+                    statuses[i] = NOT_FOUND;
+                    continue;
+                }
+                product.setName(update.name());
+                product.setPrice(update.price());
+                product.setDate(update.date());
+                eventPublisher.publishEvent(ProductChangedEvent.updated(product.getId(), productMapper.toDto(product)));
+                statuses[i] = UPDATED;
+            }
+            return statuses;
+        });
+    }
+
+    public List<Integer> deleteProducts(Iterator<Long> productIds) {
+        return chunkedWriter.write(productIds, chunk -> ChunkedWriter.deleteChunk(chunk, productRepository,
+                id -> eventPublisher.publishEvent(ProductChangedEvent.deleted(id))));
+    }
+
+    private void clearCaches() {
+        for (String cacheName : List.of(CacheConfig.PRODUCTS_BY_ID, CacheConfig.PRODUCTS_BY_NAME)) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null)
+                cache.clear();
+        }
+    }
+}
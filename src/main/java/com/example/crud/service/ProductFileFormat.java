@@ -0,0 +1,42 @@
+package com.example.crud.service;
+
+import com.example.crud.exception.BadRequestException;
+import org.springframework.http.MediaType;
+
+// File formats of the bulk export and import, one product per CSV record or per NDJSON line.
+public enum ProductFileFormat {
+    CSV(new MediaType("text", "csv"), "csv"),
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson");
+
+    public static final String CSV_VALUE = "text/csv";
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ProductFileFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static ProductFileFormat fromExtension(String extension) {
+        for (ProductFileFormat format : values())
+            if (format.extension.equalsIgnoreCase(extension))
+                return format;
+        throw new BadRequestException("The format is csv or ndjson");
+    }
+
+    public static ProductFileFormat fromMediaType(MediaType mediaType) {
+        for (ProductFileFormat format : values())
+            if (format.mediaType.equalsTypeAndSubtype(mediaType))
+                return format;
+        throw new BadRequestException("The content type is " + CSV_VALUE + " or " + MediaType.APPLICATION_NDJSON_VALUE);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.crud.service;
+
+import com.example.crud.dto.ProductDTO;
+import com.example.crud.dto.ProductPageDTO;
+import com.example.crud.entity.Product;
+import com.example.crud.exception.BadRequestException;
+import com.example.crud.mapper.imp.ProductMapper;
+import com.example.crud.repository.IProductRepository;
+import com.example.crud.search.ProductNameIndex;
+import io.micrometer.observation.annotation.Observed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Observed(name = "product.service")
+@Service
+public class ProductSearchService {
+
+    private final ProductNameIndex productNameIndex;
+    private final IProductRepository productRepository;
+    private final ProductMapper productMapper;
+
+    public ProductSearchService(ProductNameIndex productNameIndex, IProductRepository productRepository,
+                                ProductMapper productMapper) {
+        this.productNameIndex = productNameIndex;
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public ProductPageDTO searchProducts(String query, boolean prefix, String cursor, int size) {
+        if (query == null || query.isBlank())
+            throw new BadRequestException("The search query is required");
+        int pageSize = KeysetPages.pageSize(size);
+
+        // The index resolves the matching ids, the database is only hit for one page of them.
+        ProductNameIndex.Page page = productNameIndex.search(query, prefix, cursor, pageSize);
+        Map<Long, Product> products = productRepository.findAllById(page.ids()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<ProductDTO> productDTOs = page.ids().stream()
+                .map(products::get)
+                .filter(Objects::nonNull) // deleted after the lookup
+                .map(productMapper::toDto)
+                .toList();
+        return new ProductPageDTO(productDTOs, page.nextCursor());
+    }
+}
@@ -1,64 +1,341 @@
 package com.example.crud.service;
 
+import com.example.crud.cache.WriteGenerations;
+import com.example.crud.config.CacheConfig;
+import com.example.crud.datasource.ReplicaReads;
+import com.example.crud.dto.PageDTO;
+import com.example.crud.dto.ProductLookupDTO;
+import com.example.crud.dto.ProductPageDTO;
+import com.example.crud.exception.BadRequestException;
+import com.example.crud.event.ProductChangedEvent;
+import com.example.crud.exception.PreconditionFailedException;
 import com.example.crud.exception.ResourceNotFoundException;
 import com.example.crud.dto.ProductDTO;
 import com.example.crud.mapper.imp.ProductMapper;
 import com.example.crud.entity.Product;
+import com.example.crud.repository.CatalogVersionView;
 import com.example.crud.repository.IProductRepository;
+import com.example.crud.repository.ProductFilter;
+import com.example.crud.repository.ProductKeyset;
+import com.example.crud.repository.ProductRowView;
+import com.example.crud.repository.ProductSort;
+import com.example.crud.repository.ProductSpecifications;
+import com.example.crud.repository.ProductVersionView;
+import com.example.crud.repository.VersionedProductView;
+import com.example.crud.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
+import io.micrometer.observation.annotation.Observed;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
+@Observed(name = "product.service")
 @Service
-public class ProductService {
+public class ProductService implements MeterBinder {
+
+    public static final int MAX_LOOKUP_IDS = 1000;
+    // Ids per IN list; Hibernate pads each list to a power of two so few distinct statements get planned.
+    static final int LOOKUP_CHUNK_SIZE = 500;
 
     private final IProductRepository productRepository;
     private final ProductMapper productMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    // A read that started before a write committed must not cache what it found, see WriteGenerations.
+    private final WriteGenerations idGenerations = new WriteGenerations();
+    private final WriteGenerations nameGenerations = new WriteGenerations();
+    // Cache misses for the same key share one query, instead of one per request.
+    private final SingleFlight<Long, Optional<ProductDTO>> idLookups = new SingleFlight<>("productsById", SingleFlight.MAX_IN_FLIGHT_LOOKUPS);
+    private final SingleFlight<String, List<ProductDTO>> nameLookups = new SingleFlight<>("productsByName", SingleFlight.MAX_IN_FLIGHT_LOOKUPS);
+
+    // Off: one UPDATE/DELETE statement per write. On: read the entity and let @Version detect conflicts.
+    @Value("${products.optimistic-locking:false}")
+    private boolean optimisticLocking;
 
-    public ProductService(IProductRepository productRepository, ProductMapper productMapper) {
+    public ProductService(IProductRepository productRepository, ProductMapper productMapper,
+                          ApplicationEventPublisher eventPublisher, CacheManager cacheManager) {
         this.productRepository = productRepository;
         this.productMapper = productMapper;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * The whole catalog, or empty when notModified accepts its version and the list need not be loaded.
+     * Neither is cached, so both are read on a replica when routing allows it, in one transaction and so on
+     * one connection: the version is read first, so the list is never older than the ETag it is sent under.
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<ProductDTO>> getAllProducts(Predicate<Optional<CatalogVersionView>> notModified) {
+        return ReplicaReads.call(() -> {
+            if (notModified.test(Optional.ofNullable(productRepository.findCatalogVersion())))
+                return Optional.empty();
+            return Optional.of(productRepository.findAllProductDtos());
+            //This calls the proxy's implementation. The proxy uses the JPA EntityManager to perform the actual DB operation
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public ProductPageDTO getProductsPage(String cursor, int size) {
+        PageDTO<ProductDTO> page = KeysetPages.nextPage(productRepository, productMapper, cursor, size);
+        return new ProductPageDTO(page.items(), page.nextCursor());
+    }
+
+    /**
+     * Keyset page of the products matching the filter, in the given order. The cursor carries the last
+     * sort value and id, so every page is one index range scan however deep the client goes.
+     */
+    @Transactional(readOnly = true)
+    public ProductPageDTO getFilteredPage(ProductFilter filter, ProductSort sort, boolean descending, String cursor, int size) {
+        int pageSize = KeysetPages.pageSize(size);
+        if (filter.minPrice() != null && filter.maxPrice() != null && filter.minPrice() > filter.maxPrice())
+            throw new BadRequestException("minPrice is greater than maxPrice");
+        if (filter.fromDate() != null && filter.toDate() != null && filter.fromDate().isAfter(filter.toDate()))
+            throw new BadRequestException("from is after to");
+
+        Specification<Product> matching = ProductSpecifications.matching(filter);
+        Specification<Product> specification = cursor == null || cursor.isBlank() ? matching
+                : matching.and(ProductSpecifications.after(ProductKeyset.decode(cursor, sort, descending)));
+
+        // Neither cached nor validated, a replica may serve it.
+        List<ProductRowView> rows = ReplicaReads.call(() -> productRepository.findPage(specification, sort, descending, pageSize + 1));
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = ProductKeyset.after(sort, descending, rows.get(pageSize - 1)).encode();
+        }
+        List<ProductDTO> products = new ArrayList<>(rows.size());
+        for (ProductRowView row : rows)
+            products.add(row.toDto());
+        return new ProductPageDTO(products, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllProducts(Consumer<ProductDTO> consumer) {
+        ReplicaReads.run(() -> {
+            try (Stream<ProductDTO> products = productRepository.streamAllProductDtos()) {
+                products.forEach(consumer);
+            }
+        });
+    }
+
+    /**
+     * Many products by id in one call. Ids found in the by-id cache are not queried, the rest are read
+     * in chunks of LOOKUP_CHUNK_SIZE and cached unless a write to them committed meanwhile. Repeated ids
+     * are answered once.
+     */
+    public ProductLookupDTO getProductsByIds(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids.size() * 2);
+        for (Long id : ids) {
+            if (id == null)
+                throw new BadRequestException("Product ids can not be null");
+            requested.add(id);
+        }
+        if (requested.size() > MAX_LOOKUP_IDS)
+            throw new BadRequestException("At most " + MAX_LOOKUP_IDS + " ids per lookup");
+
+        Cache cache = cache(CacheConfig.PRODUCTS_BY_ID);
+        Map<Long, ProductDTO> found = new HashMap<>(requested.size() * 2);
+        List<Long> misses = new ArrayList<>();
+        for (Long id : requested) {
+            ProductDTO cached = cache.get(id, ProductDTO.class);
+            if (cached != null)
+                found.put(id, cached);
+            else
+                misses.add(id);
+        }
+        for (int from = 0; from < misses.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = misses.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, misses.size()));
+            // Stamped before the query, as getProductById does, so rows an update overtook are not cached.
+            Map<Long, Long> loadedAt = new HashMap<>(chunk.size() * 2);
+            for (Long id : chunk)
+                loadedAt.put(id, idGenerations.stamp(id));
+            for (ProductRowView row : productRepository.findRowsByIdIn(chunk)) {
+                ProductDTO productDTO = row.toDto();
+                found.put(row.id(), productDTO);
+                idGenerations.put(cache, row.id(), productDTO, loadedAt.get(row.id()));
+            }
+        }
+
+        Map<Long, ProductDTO> products = new LinkedHashMap<>(found.size() * 2);
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            ProductDTO productDTO = found.get(id);
+            if (productDTO != null)
+                products.put(id, productDTO);
+            else
+                missing.add(id);
+        }
+        return new ProductLookupDTO(products, missing);
     }
 
-    public List<ProductDTO> getAllProducts() {
-        return productRepository.findAll().stream()
-                .map(productMapper::toDto).toList();
-        //This calls the proxy's implementation. The proxy uses the JPA EntityManager to perform the actual DB operation
+    // Validator for conditional GETs, read fresh from the primary on every call and never cached.
+    @Transactional(readOnly = true)
+    public Optional<ProductVersionView> getProductVersion(Long id) {
+        return productRepository.findVersionById(id);
     }
 
+    // A product and its validator from one row of the primary, past every cache.
+    @Transactional(readOnly = true)
+    public Optional<VersionedProductView> getVersionedProduct(Long id) {
+        return productRepository.findVersionedById(id);
+    }
+
+    @Transactional
     public ProductDTO createProduct(ProductDTO productDTO) {
         Product product = productMapper.toEntity(productDTO);
         Product savedProduct = productRepository.save(product);
-        return productMapper.toDto(savedProduct); // Return mapped DTO
+        ProductDTO savedProductDto = productMapper.toDto(savedProduct); // Return mapped DTO
+        eventPublisher.publishEvent(ProductChangedEvent.created(savedProduct.getId(), savedProductDto));
+        return savedProductDto;
     }
 
+    // Misses are not cached, the id may be created later on. Hits are, so the read stays on the primary.
+    // No transaction here: callers waiting on another one's query must not hold a connection,
+    // the repository call opens its own read-only transaction.
     public Optional<ProductDTO> getProductById(Long id) {
-        return productRepository.findById(id)
-                .map(productMapper::toDto);
+        Cache cache = cache(CacheConfig.PRODUCTS_BY_ID);
+        ProductDTO cached = cache.get(id, ProductDTO.class);
+        if (cached != null)
+            return Optional.of(cached);
+
+        long loadedAt = idGenerations.stamp(id);
+        Optional<ProductDTO> productDTO = idLookups.execute(id, () -> productRepository.findById(id)
+                .map(productMapper::toDto));
         //.map: transformo el product dentro del Optional en caso de hallar alguno.
+        productDTO.ifPresent(found -> idGenerations.put(cache, id, found, loadedAt));
+        return productDTO;
     }
 
+    // The caches are evicted once the write committed, see onProductChanged.
+    @Transactional
     public ProductDTO updateProduct(Long id, ProductDTO productDtoDetails) {
+        if (optimisticLocking)
+            return updateVersionedProduct(id, productDtoDetails);
+
+        int updated = productRepository.updateById(id, productDtoDetails.name(),
+                productDtoDetails.price(), productDtoDetails.date());
+        if (updated == 0)
+            throw new ResourceNotFoundException("Product not found");
+        // The row now holds exactly these values, no need to read it back.
+        ProductDTO updatedProductDto = new ProductDTO(productDtoDetails.name(), productDtoDetails.price(), productDtoDetails.date());
+        eventPublisher.publishEvent(ProductChangedEvent.updated(id, updatedProductDto));
+        return updatedProductDto;
+    }
+
+    /**
+     * Same as above, but only while the product is still at expectedVersion, the one the client read
+     * (If-Match). The version is compared in the UPDATE itself, so a write made by anyone since that read,
+     * on any node, fails with PreconditionFailedException instead of being overwritten.
+     */
+    @Transactional
+    public ProductDTO updateProduct(Long id, ProductDTO productDtoDetails, long expectedVersion) {
+        int updated = productRepository.updateByIdAndVersion(id, expectedVersion, productDtoDetails.name(),
+                productDtoDetails.price(), productDtoDetails.date());
+        if (updated == 0) {
+            if (!productRepository.existsById(id))
+                throw new ResourceNotFoundException("Product not found");
+            throw new PreconditionFailedException("The product changed since version " + expectedVersion + ", read it again");
+        }
+        ProductDTO updatedProductDto = new ProductDTO(productDtoDetails.name(), productDtoDetails.price(), productDtoDetails.date());
+        eventPublisher.publishEvent(ProductChangedEvent.updated(id, updatedProductDto));
+        return updatedProductDto;
+    }
+
+    // Only catches a write racing with this transaction; a client needs If-Match to keep its own read current.
+    private ProductDTO updateVersionedProduct(Long id, ProductDTO productDtoDetails) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
 
-        product.setName(productDtoDetails.getName());
-        product.setPrice(productDtoDetails.getPrice());
-        product.setDate(productDtoDetails.getDate());
+        product.setName(productDtoDetails.name());
+        product.setPrice(productDtoDetails.price());
+        product.setDate(productDtoDetails.date());
 
         Product updatedProduct = productRepository.save(product);
-        return productMapper.toDto(updatedProduct);
+        ProductDTO updatedProductDto = productMapper.toDto(updatedProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(id, updatedProductDto));
+        return updatedProductDto;
     }
 
+    // Stays on the primary, its answer fills this cache and the query cache.
+    @SuppressWarnings("unchecked") // only lists of ProductDTO are put under this cache
     public List<ProductDTO> getProductsByName(String name) {
-        return productRepository.findByName(name).stream()
-                .map(productMapper::toDto).toList();
+        Cache cache = cache(CacheConfig.PRODUCTS_BY_NAME);
+        Cache.ValueWrapper cached = cache.get(name);
+        if (cached != null)
+            return (List<ProductDTO>) cached.get();
+
+        long loadedAt = nameGenerations.stamp(name);
+        List<ProductDTO> productDTOs = nameLookups.execute(name, () -> productRepository.findProductDtosByName(name));
+        nameGenerations.put(cache, name, productDTOs, loadedAt);
+        return productDTOs;
     }
 
+    @Transactional
     public void deleteProduct(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+        if (optimisticLocking) {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+            productRepository.delete(product);
+        } else if (productRepository.deleteProductById(id) == 0) {
+            throw new ResourceNotFoundException("Product not found");
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
+    }
+
+    /**
+     * Drops what the write made stale, once it committed: a cache entry updated inside the transaction could
+     * be overwritten by a read of the previous row, or be seen before the commit. A lookup already running
+     * may have read the previous state: later callers start a new one, and it is not cached since the
+     * generation moved. Forgotten before the generation moves, so no caller can stamp the new generation
+     * and still join the old lookup.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        idLookups.forget(event.id());
+        idGenerations.changed(event.id());
+        cache(CacheConfig.PRODUCTS_BY_ID).evict(event.id());
+        if (event.type() == ProductChangedEvent.Type.CREATED) {
+            // Only the name lookup of the new product can change, its id was never cached.
+            String name = event.product().name();
+            nameLookups.forget(name);
+            nameGenerations.changed(name);
+            cache(CacheConfig.PRODUCTS_BY_NAME).evict(name);
+        } else {
+            // The previous name is unknown here, so every name lookup is dropped.
+            nameLookups.forgetAll();
+            nameGenerations.changedAll();
+            cache(CacheConfig.PRODUCTS_BY_NAME).clear();
+        }
+    }
+
+    private Cache cache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        return cache != null ? cache : new NoOpCache(name);
+    }
 
-        productRepository.delete(product);
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        idLookups.bindTo(registry);
+        nameLookups.bindTo(registry);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,412 @@
+package com.example.crud.service;
+
+import com.example.crud.datasource.ReplicaReads;
+import com.example.crud.dto.ProductDTO;
+import com.example.crud.dto.ProductImportReportDTO;
+import com.example.crud.dto.ProductImportReportDTO.RejectedRow;
+import com.example.crud.exception.BadRequestException;
+import com.example.crud.util.CsvReader;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.observation.annotation.Observed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.example.crud.service.ChunkedWriter.CREATED;
+
+/**
+ * Bulk export and import of the product table as CSV or NDJSON, in constant memory.
+ * The export reads a forward-only JDBC cursor and writes each row as it arrives. The import parses
+ * the upload row by row and creates the products through {@link ProductBatchService}, in chunks;
+ * rows that can not be parsed or written are reported with their line and the import goes on.
+ */
+@Observed(name = "product.service")
+@Service
+public class ProductTransferService implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductTransferService.class);
+
+    static final String EXPORT_SQL = "SELECT id, name, price, date, updated_at FROM product ORDER BY id";
+    static final String[] CSV_HEADER = {"id", "name", "price", "date", "updated_at"};
+    private static final int PROGRESS_EVERY = 100_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductBatchService productBatchService;
+    private final ObjectMapper objectMapper;
+    private final int maxRowChars;
+    private final int maxReportedRejections;
+    private final LongAdder exported = new LongAdder();
+    private final LongAdder imported = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public ProductTransferService(DataSource dataSource, ProductBatchService productBatchService, ObjectMapper objectMapper,
+                                  @Value("${products.export.fetch-size:1000}") int fetchSize,
+                                  @Value("${products.import.max-row-chars:65536}") int maxRowChars,
+                                  @Value("${products.import.max-reported-rejections:1000}") int maxReportedRejections) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // Within the read-only transaction the Postgres driver then streams the rows through a cursor,
+        // fetchSize at a time, instead of loading the whole result set.
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.productBatchService = productBatchService;
+        this.objectMapper = objectMapper;
+        this.maxRowChars = maxRowChars;
+        this.maxReportedRejections = maxReportedRejections;
+    }
+
+    /**
+     * Writes every product, ordered by id, and returns how many were written. The writer is not closed.
+     */
+    @Transactional(readOnly = true)
+    public long exportProducts(ProductFileFormat format, Writer writer) throws IOException {
+        RowWriter rowWriter = format == ProductFileFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+        long[] count = {0};
+        try {
+            ReplicaReads.run(() -> jdbcTemplate.query(EXPORT_SQL, resultSet -> {
+                OffsetDateTime updatedAt = resultSet.getObject("updated_at", OffsetDateTime.class);
+                try {
+                    rowWriter.write(resultSet.getLong("id"), resultSet.getString("name"), resultSet.getFloat("price"),
+                            resultSet.getObject("date", LocalDate.class), updatedAt == null ? null : updatedAt.toInstant().toString());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e); // e.g. the client went away, the cursor is closed on the way out
+                }
+                count[0]++;
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            exported.add(count[0]);
+        }
+        rowWriter.finish();
+        return count[0];
+    }
+
+    /**
+     * Creates a product per row of the upload. Chunks written before a failure stay committed,
+     * a malformed CSV header fails the whole import before anything is written.
+     */
+    public ProductImportReportDTO importProducts(ProductFileFormat format, Reader reader) throws IOException {
+        BufferedReader bufferedReader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader, 65536);
+        ImportRun run = new ImportRun(format == ProductFileFormat.CSV ? csvRows(bufferedReader) : new NdjsonRows(bufferedReader));
+        try {
+            productBatchService.createProducts(run, run::written);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("Imported {} products, rejected {} rows", run.accepted, run.rejected);
+        return new ProductImportReportDTO(run.accepted, run.rejected, run.rejectedRows);
+    }
+
+    // One parsed row of the upload, either a product or the reason it was rejected.
+    private record ImportRow(long line, ProductDTO product, String error) {
+
+        static ImportRow accepted(long line, ProductDTO product) {
+            return new ImportRow(line, product, null);
+        }
+
+        static ImportRow rejected(long line, String error) {
+            return new ImportRow(line, null, error);
+        }
+    }
+
+    private interface RowSource {
+        // Null at the end of the upload.
+        ImportRow next() throws IOException;
+    }
+
+    /**
+     * Feeds the parsed products to the batch writer, keeping the line of each one until its chunk is
+     * written, so at most a chunk of lines is held.
+     */
+    private class ImportRun implements Iterator<ProductDTO> {
+
+        private final RowSource rows;
+        private final ArrayDeque<Long> pendingLines = new ArrayDeque<>();
+        private final List<RejectedRow> rejectedRows = new ArrayList<>();
+        private ImportRow next;
+        private long accepted;
+        private long rejected;
+
+        ImportRun(RowSource rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (next == null) {
+                    ImportRow row = rows.next();
+                    if (row == null)
+                        return false;
+                    if (row.error() != null)
+                        reject(row.line(), row.error());
+                    else
+                        next = row;
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public ProductDTO next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            pendingLines.add(next.line());
+            ProductDTO product = next.product();
+            next = null;
+            return product;
+        }
+
+        void written(int[] statuses) {
+            for (int status : statuses) {
+                long line = pendingLines.remove();
+                if (status == CREATED) {
+                    accepted++;
+                    imported.increment();
+                } else {
+                    reject(line, "Could not be written");
+                }
+            }
+            if ((accepted + rejected) / PROGRESS_EVERY != (accepted + rejected - statuses.length) / PROGRESS_EVERY)
+                log.info("Importing products: {} created, {} rejected so far", accepted, rejected);
+        }
+
+        private void reject(long line, String reason) {
+            rejected++;
+            ProductTransferService.this.rejected.increment();
+            if (rejectedRows.size() < maxReportedRejections)
+                rejectedRows.add(new RejectedRow(line, reason));
+        }
+    }
+
+    private RowSource csvRows(Reader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader, maxRowChars);
+        List<String> header;
+        try {
+            header = csv.readRecord();
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Malformed CSV header: " + e.getMessage());
+        }
+        if (header == null)
+            return () -> null;
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++)
+            if (header.get(i) != null)
+                columns.put(header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT), i);
+        Integer name = columns.get("name");
+        Integer price = columns.get("price");
+        Integer date = columns.get("date");
+        if (name == null || price == null)
+            throw new BadRequestException("The CSV header needs name and price columns");
+
+        int width = header.size();
+        return () -> {
+            while (true) {
+                List<String> fields;
+                try {
+                    fields = csv.readRecord();
+                } catch (IllegalArgumentException e) {
+                    return ImportRow.rejected(csv.recordLine(), e.getMessage());
+                }
+                if (fields == null)
+                    return null;
+                if (fields.size() == 1 && fields.get(0) == null)
+                    continue; // blank line
+                if (fields.size() != width)
+                    return ImportRow.rejected(csv.recordLine(), "Expected " + width + " fields, found " + fields.size());
+                try {
+                    return ImportRow.accepted(csv.recordLine(), new ProductDTO(fields.get(name), parsePrice(fields.get(price)),
+                            date == null ? null : parseDate(fields.get(date))));
+                } catch (IllegalArgumentException e) {
+                    return ImportRow.rejected(csv.recordLine(), e.getMessage());
+                }
+            }
+        };
+    }
+
+    private static float parsePrice(String value) {
+        if (value == null || value.isBlank())
+            throw new IllegalArgumentException("price is missing");
+        float price;
+        try {
+            price = Float.parseFloat(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("price is not a number");
+        }
+        if (!Float.isFinite(price))
+            throw new IllegalArgumentException("price is not a number");
+        return price;
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null || value.isBlank())
+            return null;
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("date is not yyyy-MM-dd");
+        }
+    }
+
+    // One JSON product per line; blank lines are skipped, a line over maxRowChars is rejected without being kept.
+    private class NdjsonRows implements RowSource {
+
+        private final Reader reader;
+        private final StringBuilder text = new StringBuilder();
+        private long line;
+        private boolean ended;
+
+        NdjsonRows(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            while (!ended) {
+                line++;
+                text.setLength(0);
+                int length = 0;
+                int c;
+                while ((c = reader.read()) != -1 && c != '\n')
+                    if (++length <= maxRowChars)
+                        text.append((char) c);
+                ended = c == -1;
+                if (length > maxRowChars)
+                    return ImportRow.rejected(line, "Line longer than " + maxRowChars + " characters");
+
+                String json = text.toString().replace("\uFEFF", "").trim();
+                if (json.isEmpty())
+                    continue;
+                try {
+                    ProductDTO product = objectMapper.readValue(json, ProductDTO.class);
+                    return product == null ? ImportRow.rejected(line, "Not a product") : ImportRow.accepted(line, product);
+                } catch (JsonProcessingException e) {
+                    return ImportRow.rejected(line, "Malformed JSON");
+                }
+            }
+            return null;
+        }
+    }
+
+    private interface RowWriter {
+        void write(long id, String name, float price, LocalDate date, String updatedAt) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(String.join(",", CSV_HEADER));
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(long id, String name, float price, LocalDate date, String updatedAt) throws IOException {
+            writer.write(Long.toString(id));
+            writer.write(',');
+            if (name != null)
+                writer.write(quote(name));
+            writer.write(',');
+            writer.write(Float.toString(price));
+            writer.write(',');
+            if (date != null)
+                writer.write(date.toString());
+            writer.write(',');
+            if (updatedAt != null)
+                writer.write(updatedAt);
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        // Quoted when needed; an empty name is quoted too, an empty field being a null one.
+        static String quote(String value) {
+            if (!value.isEmpty() && value.chars().noneMatch(c -> c == ',' || c == '"' || c == '\n' || c == '\r'))
+                return value;
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+        private boolean written;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setPrettyPrinter(new MinimalPrettyPrinter("\n")); // one object per line
+        }
+
+        @Override
+        public void write(long id, String name, float price, LocalDate date, String updatedAt) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", id);
+            generator.writeStringField("name", name);
+            generator.writeNumberField("price", price);
+            generator.writeStringField("date", date == null ? null : date.toString());
+            generator.writeStringField("updatedAt", updatedAt);
+            generator.writeEndObject();
+            written = true;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (written)
+                generator.writeRaw('\n'); // the pretty printer only separates the lines
+            generator.close();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("products.export.rows", exported, LongAdder::sum)
+                .description("Products written by the bulk export")
+                .register(registry);
+        FunctionCounter.builder("products.import.rows", imported, LongAdder::sum)
+                .tag("outcome", "created")
+                .description("Rows of bulk imports, as they are processed")
+                .register(registry);
+        FunctionCounter.builder("products.import.rows", rejected, LongAdder::sum)
+                .tag("outcome", "rejected")
+                .description("Rows of bulk imports, as they are processed")
+                .register(registry);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.crud.service;
+
+import com.example.crud.dto.ProductDTO;
+import com.example.crud.entity.Product;
+import com.example.crud.exception.BadRequestException;
+import com.example.crud.exception.ResourceNotFoundException;
+import com.example.crud.mapper.imp.ProductMapper;
+import com.example.crud.repository.ReactiveProductRepository;
+import com.example.crud.search.ProductNameIndex;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The ProductService operations without blocking the calling thread.
+ * Reads go through R2DBC. Writes are handed to ProductService on the bounded elastic
+ * scheduler, so they keep the same transactions, cache evictions and change events.
+ */
+@Service
+public class ReactiveProductService {
+
+    private static final int SEARCH_PAGE_SIZE = KeysetPages.MAX_PAGE_SIZE;
+
+    private final ReactiveProductRepository reactiveProductRepository;
+    private final ProductService productService;
+    private final ProductNameIndex productNameIndex;
+    private final ProductMapper productMapper;
+
+    public ReactiveProductService(ReactiveProductRepository reactiveProductRepository, ProductService productService,
+                                  ProductNameIndex productNameIndex, ProductMapper productMapper) {
+        this.reactiveProductRepository = reactiveProductRepository;
+        this.productService = productService;
+        this.productNameIndex = productNameIndex;
+        this.productMapper = productMapper;
+    }
+
+    public Flux<ProductDTO> getAllProducts() {
+        return reactiveProductRepository.findAll().map(productMapper::toDto);
+    }
+
+    public Mono<ProductDTO> getProductById(Long id) {
+        return reactiveProductRepository.findById(id)
+                .map(productMapper::toDto)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Product not found")));
+    }
+
+    public Flux<ProductDTO> getProductsByName(String name) {
+        return reactiveProductRepository.findByName(name).map(productMapper::toDto);
+    }
+
+    // Every match, in index order. The rows are read one index page at a time, as the subscriber asks for more.
+    public Flux<ProductDTO> searchProducts(String query, boolean prefix) {
+        if (query == null || query.isBlank())
+            return Flux.error(new BadRequestException("The search query is required"));
+        return Mono.fromSupplier(() -> productNameIndex.search(query, prefix, null, SEARCH_PAGE_SIZE))
+                .expand(page -> page.nextCursor() == null ? Mono.empty()
+                        : Mono.fromSupplier(() -> productNameIndex.search(query, prefix, page.nextCursor(), SEARCH_PAGE_SIZE)))
+                .concatMap(this::loadInIndexOrder);
+    }
+
+    public Mono<ProductDTO> createProduct(ProductDTO productDTO) {
+        return Mono.fromCallable(() -> productService.createProduct(productDTO))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<ProductDTO> updateProduct(Long id, ProductDTO productDtoDetails) {
+        return Mono.fromCallable(() -> productService.updateProduct(id, productDtoDetails))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Void> deleteProduct(Long id) {
+        return Mono.<Void>fromRunnable(() -> productService.deleteProduct(id))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Flux<ProductDTO> loadInIndexOrder(ProductNameIndex.Page page) {
+        return reactiveProductRepository.findAllById(page.ids())
+                .collect(Collectors.toMap(Product::getId, Function.identity()))
+                .flatMapIterable((Map<Long, Product> products) -> page.ids().stream()
+                        .map(products::get)
+                        .filter(Objects::nonNull) // deleted after the lookup
+                        .map(productMapper::toDto)
+                        .toList());
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.crud.service;
+
+import com.example.crud.config.CacheConfig;
+import com.example.crud.dto.ServiceDTO;
+import com.example.crud.entity.Service;
+import com.example.crud.mapper.imp.ServiceMapper;
+import com.example.crud.repository.IServiceRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@org.springframework.stereotype.Service
+public class ServiceCrudService extends CrudService<Service, ServiceDTO> {
+
+    public ServiceCrudService(IServiceRepository serviceRepository, ServiceMapper serviceMapper, CacheManager cacheManager,
+                              TransactionTemplate transactionTemplate, EntityManager entityManager,
+                              @Value("${products.batch.chunk-size:1000}") int chunkSize) {
+        super("Service", serviceRepository, serviceMapper, cacheManager.getCache(CacheConfig.SERVICES_BY_ID),
+                transactionTemplate, entityManager, chunkSize);
+    }
+}
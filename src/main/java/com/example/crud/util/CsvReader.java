@@ -0,0 +1,105 @@
+package com.example.crud.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 CSV one record at a time, so a big upload never has to be fully materialized.
+ * Quoted fields may hold commas, line breaks and doubled quotes. An empty unquoted field is read
+ * as null, an empty quoted one ("") as the empty string.
+ * A record over maxRecordChars, or an unterminated quote, fails with an IllegalArgumentException once
+ * the record is consumed, so the caller can reject it and go on with the next one.
+ */
+public class CsvReader implements Closeable {
+
+    private final Reader reader;
+    private final int maxRecordChars;
+    private long line = 1;
+    private long recordLine;
+    private int peeked = -2; // -2: nothing peeked
+
+    public CsvReader(Reader reader, int maxRecordChars) {
+        this.reader = reader;
+        this.maxRecordChars = maxRecordChars;
+    }
+
+    // Line the last record read started on, 1 based.
+    public long recordLine() {
+        return recordLine;
+    }
+
+    // The fields of the next record, null at the end of the input. A blank line is a record of one null field.
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1)
+            return null;
+        recordLine = line;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean inQuotes = false;
+        int length = 0;
+        while (true) {
+            if (inQuotes) {
+                if (c == -1)
+                    throw new IllegalArgumentException("Unterminated quoted field");
+                if (c == '"') {
+                    int next = read();
+                    if (next != '"') {
+                        inQuotes = false;
+                        c = next;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    line++;
+                }
+                if (++length <= maxRecordChars)
+                    field.append((char) c);
+            } else if (c == '"' && field.isEmpty() && !quoted) {
+                quoted = inQuotes = true;
+            } else if (c == ',') {
+                fields.add(value(field, quoted));
+                field.setLength(0);
+                quoted = false;
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n')
+                        peeked = next;
+                }
+                if (c != -1)
+                    line++;
+                fields.add(value(field, quoted));
+                break;
+            } else if (++length <= maxRecordChars) {
+                field.append((char) c); // also a stray quote inside an unquoted field, taken as is
+            }
+            c = read();
+        }
+        if (length > maxRecordChars)
+            throw new IllegalArgumentException("Record longer than " + maxRecordChars + " characters");
+        return fields;
+    }
+
+    private static String value(StringBuilder field, boolean quoted) {
+        return field.isEmpty() && !quoted ? null : field.toString();
+    }
+
+    private int read() throws IOException {
+        if (peeked != -2) {
+            int c = peeked;
+            peeked = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
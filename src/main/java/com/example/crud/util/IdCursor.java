@@ -0,0 +1,38 @@
+package com.example.crud.util;
+
+import com.example.crud.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor of keyset pages ordered by id, clients only pass back what they got.
+ */
+public final class IdCursor {
+
+    private static final String PREFIX = "id:";
+
+    private IdCursor() {
+    }
+
+    public static String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static long decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX))
+                throw new BadRequestException("Invalid cursor");
+            return Long.parseLong(decoded.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) { // also covers NumberFormatException
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    // First page when there is no cursor.
+    public static long afterId(String cursor) {
+        return cursor == null || cursor.isBlank() ? Long.MIN_VALUE : decode(cursor);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.crud.util;
+
+import com.example.crud.exception.BadRequestException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the elements of a top level JSON array one at a time, so a big request body
+ * never has to be fully materialized. A JSON null element is returned as null.
+ */
+public class JsonArrayReader<T> implements Iterator<T>, Closeable {
+
+    private final ObjectMapper objectMapper;
+    private final JsonParser parser;
+    private final Class<T> type;
+    private JsonToken current;
+    private int position;
+
+    public JsonArrayReader(ObjectMapper objectMapper, InputStream inputStream, Class<T> type) {
+        this.objectMapper = objectMapper;
+        this.type = type;
+        try {
+            this.parser = objectMapper.getFactory().createParser(inputStream);
+            if (parser.nextToken() != JsonToken.START_ARRAY)
+                throw new BadRequestException("Expected a JSON array");
+            this.current = parser.nextToken();
+        } catch (IOException e) {
+            throw new BadRequestException("Malformed JSON array");
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return current != null && current != JsonToken.END_ARRAY;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        try {
+            T value = current == JsonToken.VALUE_NULL ? null : objectMapper.readValue(parser, type);
+            position++;
+            current = parser.nextToken();
+            return value;
+        } catch (IOException e) {
+            throw new BadRequestException("Malformed JSON at element " + position);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.crud.util;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller runs the loader, the ones arriving
+ * while it runs wait for it and get the same result, or the same exception. Nothing is kept once
+ * the call completes, this is not a cache.
+ * At most maxInFlight keys are tracked; past that callers run their own loader, so a flood of
+ * distinct keys can not grow the map.
+ */
+public class SingleFlight<K, V> implements MeterBinder {
+
+    // Distinct keys the services let load at once, past this their lookups run uncoalesced.
+    public static final int MAX_IN_FLIGHT_LOOKUPS = 1024;
+
+    private final String name;
+    private final int maxInFlight;
+    private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+
+    public SingleFlight(String name, int maxInFlight) {
+        this.name = name;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> running = calls.get(key);
+        if (running != null)
+            return await(running);
+
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            bypassed.increment();
+            return loader.get();
+        }
+        CompletableFuture<V> call = new CompletableFuture<>();
+        running = calls.putIfAbsent(key, call);
+        if (running != null) {
+            inFlight.decrementAndGet();
+            return await(running);
+        }
+
+        executed.increment();
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, call);
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Callers arriving from now on start a new call instead of joining the running one,
+     * e.g. once a write has committed and the running load may have read the previous state.
+     * The running call still completes and hands its result to the callers that joined it, so callers
+     * that cache the result must check that no write came in between, see WriteGenerations.
+     */
+    public void forget(K key) {
+        calls.remove(key);
+    }
+
+    public void forgetAll() {
+        calls.clear();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private V await(CompletableFuture<V> running) {
+        coalesced.increment();
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            // The leader's own exception, not a wrapper, so callers handle it the same way.
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            if (e.getCause() instanceof Error cause)
+                throw cause;
+            throw e;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("singleflight.in.flight", inFlight, AtomicInteger::get)
+                .tag("name", name)
+                .description("Distinct loads running right now")
+                .register(registry);
+        Gauge.builder("singleflight.max.in.flight", () -> maxInFlight)
+                .tag("name", name)
+                .register(registry);
+        registerCounter(registry, "executed", executed);
+        registerCounter(registry, "coalesced", coalesced);
+        registerCounter(registry, "bypassed", bypassed);
+    }
+
+    private void registerCounter(MeterRegistry registry, String outcome, LongAdder adder) {
+        // Read from the adder on scrape, the hot path never touches the registry.
+        FunctionCounter.builder("singleflight.calls", adder, LongAdder::sum)
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.crud.cache;
+
+import com.example.crud.dto.ProductDTO;
+import com.example.crud.dto.ProductPageDTO;
+import com.example.crud.event.ProductChangedEvent;
+import com.example.crud.repository.VersionedProductView;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductResponseCacheTest {
+
+    private final ProductResponseCache cache = new ProductResponseCache(
+            Jackson2ObjectMapperBuilder.json()
+                    .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build(), DataSize.ofMegabytes(1), true, 100, Duration.ofMinutes(1));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private Supplier<Object> loader(Object body) {
+        return () -> {
+            loads.incrementAndGet();
+            return body;
+        };
+    }
+
+    private Supplier<VersionedProductView> product(long id, String name, long version) {
+        return () -> {
+            loads.incrementAndGet();
+            return new VersionedProductView(id, name, 3, LocalDate.of(2024, 9, 1), version, Instant.EPOCH);
+        };
+    }
+
+    private static ProductPageDTO page(int size) {
+        return new ProductPageDTO(IntStream.range(0, size)
+                .mapToObj(i -> new ProductDTO("Product " + i, i, LocalDate.of(2024, 9, 1))).toList(), null);
+    }
+
+    @Test
+    void getProduct_reusesTheBodyOnlyForTheSameEtag() {
+        CachedResponse first = cache.getProduct(1L, "1-0", product(1L, "Tea", 0));
+        assertSame(first, cache.getProduct(1L, "1-0", product(1L, "Tea", 0)));
+        assertNotSame(first, cache.getProduct(1L, "1-1", product(1L, "Tea", 1)));
+        assertEquals(2, loads.get());
+        assertEquals("{\"name\":\"Tea\",\"price\":3.0,\"date\":\"2024-09-01\"}", new String(first.json(), StandardCharsets.UTF_8));
+        assertNull(first.gzip()); // under gzip-min-bytes
+    }
+
+    @Test
+    void getProduct_withoutEtag_isNeverCached() {
+        cache.getProduct(1L, null, product(1L, "Tea", 0));
+        cache.getProduct(1L, null, product(1L, "Tea", 0));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getProduct_doesNotStoreABodyOfAnotherVersionThanTheEtag() {
+        // Another node wrote version 1 between the validator read and the body read.
+        CachedResponse served = cache.getProduct(1L, "1-0", product(1L, "Green tea", 1));
+        CachedResponse next = cache.getProduct(1L, "1-1", product(1L, "Green tea", 1));
+
+        assertEquals("1-1", served.etag());
+        assertNotSame(served, next);
+        assertSame(next, cache.getProduct(1L, "1-1", product(1L, "Green tea", 1)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void writes_dropTheProductAndEveryPage() {
+        cache.getProduct(1L, "1-0", product(1L, "a", 0));
+        cache.getProduct(2L, "2-0", product(2L, "b", 0));
+        cache.getPage(null, 20, loader(page(2)));
+
+        cache.onProductChanged(ProductChangedEvent.deleted(1L));
+        cache.getProduct(1L, "1-0", product(1L, "a", 0));
+        cache.getProduct(2L, "2-0", product(2L, "b", 0));
+        cache.getPage(null, 20, loader(page(2)));
+
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void pages_expireAfterPageTtl() {
+        ProductResponseCache expiring = new ProductResponseCache(Jackson2ObjectMapperBuilder.json().build(),
+                DataSize.ofMegabytes(1), true, 100, Duration.ZERO);
+
+        expiring.getPage(null, 20, loader(page(2)));
+        expiring.getPage(null, 20, loader(page(2)));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void aBodyLoadedBeforeAWrite_isNotStored() {
+        cache.getPage(null, 20, () -> {
+            cache.invalidate(7L); // a write commits while the page is being read
+            return page(2);
+        });
+        cache.getPage(null, 20, loader(page(2)));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void largeBodies_areAlsoKeptGzipped() throws IOException {
+        CachedResponse response = cache.getPage(null, 50, loader(page(50)));
+
+        assertNotNull(response.gzip());
+        assertTrue(response.gzip().length < response.json().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.gzip()))) {
+            assertArrayEquals(response.json(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void acceptsGzip() {
+        assertTrue(ProductResponseCache.acceptsGzip("gzip, deflate, br"));
+        assertTrue(ProductResponseCache.acceptsGzip("br;q=1.0, gzip;q=0.8"));
+        assertTrue(ProductResponseCache.acceptsGzip("*"));
+        assertFalse(ProductResponseCache.acceptsGzip("gzip;q=0"));
+        assertFalse(ProductResponseCache.acceptsGzip("identity"));
+        assertFalse(ProductResponseCache.acceptsGzip(null));
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.crud.config;
+
+import com.example.crud.entity.Product;
+import com.example.crud.repository.IProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.cache.CacheManager;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Second-level and query cache against H2, each repository call in a transaction of its own.
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CaffeineRegionFactoryTest {
+
+    @Autowired
+    private IProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllInBatch();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void findById_IsServedFromTheSecondLevelCache() {
+        Long id = productRepository.save(new Product("Product", 1f, LocalDate.of(2024, 1, 1))).getId();
+        statistics.clear();
+
+        assertEquals("Product", productRepository.findById(id).orElseThrow().getName());
+        assertEquals("Product", productRepository.findById(id).orElseThrow().getName());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getDomainDataRegionStatistics(CaffeineRegionFactory.PRODUCT_REGION).getHitCount());
+    }
+
+    @Test
+    void versionedUpdate_ReadsFromTheCacheAndKeepsItCurrent() {
+        Long id = productRepository.save(new Product("Product", 1f, LocalDate.of(2024, 1, 1))).getId();
+        statistics.clear();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Product product = productRepository.findById(id).orElseThrow();
+            product.setName("Renamed");
+        });
+
+        assertEquals(1, statistics.getPrepareStatementCount()); // the UPDATE, no SELECT before it
+        assertEquals("Renamed", productRepository.findById(id).orElseThrow().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void cachedQuery_IsDroppedOnceTheTableIsWritten() {
+        productRepository.save(new Product("Tea", 1f, LocalDate.of(2024, 1, 1)));
+        statistics.clear();
+
+        assertEquals(1, productRepository.findProductDtosByName("Tea").size());
+        assertEquals(1, productRepository.findProductDtosByName("Tea").size());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        productRepository.save(new Product("Tea", 2f, LocalDate.of(2024, 1, 1)));
+
+        assertEquals(2, productRepository.findProductDtosByName("Tea").size());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(2, statistics.getQueryCacheMissCount());
+    }
+
+    @Test
+    void versionQueries_AreNeverCached() {
+        Long id = productRepository.save(new Product("Product", 1f, LocalDate.of(2024, 1, 1))).getId();
+        statistics.clear();
+
+        productRepository.findVersionById(id);
+        productRepository.findVersionById(id);
+        productRepository.findCatalogVersion();
+        productRepository.findCatalogVersion();
+
+        assertEquals(0, statistics.getQueryCachePutCount());
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void bulkUpdate_DropsTheCachedEntity() {
+        Long id = productRepository.save(new Product("Product", 1f, LocalDate.of(2024, 1, 1))).getId();
+        productRepository.findById(id);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                productRepository.updateById(id, "Bulk", 2f, LocalDate.of(2024, 1, 1)));
+
+        assertEquals("Bulk", productRepository.findById(id).orElseThrow().getName());
+    }
+
+    @Test
+    void everyRegionIsBounded_ButTheUpdateTimestamps() {
+        RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache().getRegionFactory();
+        CacheManager cacheManager = ((JCacheRegionFactory) regionFactory).getCacheManager();
+
+        Set<String> regions = new HashSet<>();
+        cacheManager.getCacheNames().forEach(regions::add);
+
+        assertEquals(Set.of(CaffeineRegionFactory.PRODUCT_REGION, CaffeineRegionFactory.PRODUCT_QUERY_REGION,
+                RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME), regions);
+        for (String region : regions) {
+            Cache<?, ?> cache = cacheManager.getCache(region).unwrap(Cache.class);
+            boolean timestamps = region.equals(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME);
+            assertEquals(timestamps, cache.policy().eviction().isEmpty(), region);
+            assertEquals(timestamps, cache.policy().expireAfterWrite().isEmpty(), region);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.crud.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentNegotiationConfigTest {
+
+    @Test
+    void prefersJson() {
+        assertTrue(ContentNegotiationConfig.prefersJson(null));
+        assertTrue(ContentNegotiationConfig.prefersJson("*/*"));
+        assertTrue(ContentNegotiationConfig.prefersJson("application/json, application/cbor;q=0.5"));
+        assertFalse(ContentNegotiationConfig.prefersJson("application/cbor"));
+        assertFalse(ContentNegotiationConfig.prefersJson("application/json;q=0.5, application/x-jackson-smile"));
+        assertFalse(ContentNegotiationConfig.prefersJson("application/cbor, */*;q=0.1"));
+        assertFalse(ContentNegotiationConfig.prefersJson("text/html"));
+        assertFalse(ContentNegotiationConfig.prefersJson("not a media type"));
+    }
+}
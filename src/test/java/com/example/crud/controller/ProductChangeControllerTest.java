@@ -0,0 +1,76 @@
+package com.example.crud.controller;
+
+import com.example.crud.feed.ProductChangeFeed;
+import com.example.crud.feed.ProductChangeSubscriptions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ProductChangeController.class)
+@Import(ProductChangeFeed.class)
+class ProductChangeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+
+    @MockBean
+    private ProductChangeSubscriptions productChangeSubscriptions;
+
+    @Test
+    void followChanges_OnlyNewChangesByDefault() throws Exception {
+        mockMvc.perform(get("/api/products/changes"))
+                .andExpect(request().asyncStarted());
+
+        verify(productChangeSubscriptions).subscribe(any(), isNull(), eq(false));
+    }
+
+    @Test
+    void followChanges_ResumesAfterTheLastEventId() throws Exception {
+        mockMvc.perform(get("/api/products/changes").param("from", productChangeFeed.eventId(3)).param("coalesce", "true")
+                        .header("Last-Event-ID", productChangeFeed.eventId(41)))
+                .andExpect(request().asyncStarted());
+
+        verify(productChangeSubscriptions).subscribe(any(), eq(42L), eq(true));
+    }
+
+    @Test
+    void followChanges_StartsFromTheGivenEventId() throws Exception {
+        mockMvc.perform(get("/api/products/changes").param("from", productChangeFeed.eventId(3)))
+                .andExpect(request().asyncStarted());
+
+        verify(productChangeSubscriptions).subscribe(any(), eq(3L), eq(false));
+    }
+
+    @Test
+    void followChanges_EventIdOfAnotherRunIsUnknown() throws Exception {
+        mockMvc.perform(get("/api/products/changes").header("Last-Event-ID", "41"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products/changes").header("Last-Event-ID", "otherrun-41"))
+                .andExpect(request().asyncStarted());
+
+        verify(productChangeSubscriptions).subscribe(any(), eq(ProductChangeFeed.UNKNOWN_SEQUENCE), eq(false));
+    }
+
+    @Test
+    void followChanges_InvalidLastEventId() throws Exception {
+        mockMvc.perform(get("/api/products/changes").header("Last-Event-ID", "abc"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(productChangeSubscriptions);
+    }
+}
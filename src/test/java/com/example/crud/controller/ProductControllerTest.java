@@ -1,7 +1,27 @@
 package com.example.crud.controller;
 
+import com.example.crud.cache.ProductResponseCache;
+import com.example.crud.config.ContentNegotiationConfig;
 import com.example.crud.dto.ProductDTO;
+import com.example.crud.dto.ProductImportReportDTO;
+import com.example.crud.dto.ProductLookupDTO;
+import com.example.crud.dto.ProductPageDTO;
+import com.example.crud.exception.BadRequestException;
+import com.example.crud.exception.PartialBatchException;
+import com.example.crud.exception.PreconditionFailedException;
+import com.example.crud.repository.CatalogVersionView;
+import com.example.crud.repository.ProductFilter;
+import com.example.crud.repository.ProductSort;
+import com.example.crud.repository.ProductVersionView;
+import com.example.crud.repository.VersionedProductView;
+import com.example.crud.dto.ProductUpdateDTO;
+import com.example.crud.service.ProductBatchService;
+import com.example.crud.service.ProductSearchService;
+import com.example.crud.service.ProductFileFormat;
 import com.example.crud.service.ProductService;
+import com.example.crud.service.ProductTransferService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,23 +30,40 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.BufferedReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
 @WebMvcTest(ProductController.class)
+@Import({ProductResponseCache.class, ContentNegotiationConfig.class})
  class ProductControllerTest {
 
     @Autowired
@@ -35,6 +72,18 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private ProductBatchService productBatchService;
+
+    @MockBean
+    private ProductSearchService productSearchService;
+
+    @MockBean
+    private ProductTransferService productTransferService;
+
+    @Autowired
+    private ProductResponseCache responseCache;
+
     private AutoCloseable closeable;
 
     ProductDTO product1;
@@ -43,6 +92,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
     @BeforeEach
     public void setUp() {
         closeable = MockitoAnnotations.openMocks(this);
+        responseCache.invalidateAll();
         product1 = new ProductDTO("Product 1", 10.0f, LocalDate.now());
         product2 = new ProductDTO("Product 2", 15.0f, LocalDate.now());
     }
@@ -56,7 +106,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
     void getAllProducts() throws Exception {
         List<ProductDTO> products = Arrays.asList(product1, product2);
 
-        when(productService.getAllProducts()).thenReturn(products);
+        when(productService.getAllProducts(any())).thenReturn(Optional.of(products));
 
         mockMvc.perform(get("/api/products"))
                 .andExpect(status().isOk())
@@ -65,11 +115,38 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
                 .andExpect(jsonPath("$[1].name").value("Product 2")); //JSON path expressions
     }
 
+    @Test
+    void getProductsByIds_ReturnsProductsByIdAndMissingIds() throws Exception {
+        Map<Long, ProductDTO> products = new LinkedHashMap<>();
+        products.put(2L, product2);
+        products.put(1L, product1);
+        when(productService.getProductsByIds(List.of(2L, 1L, 3L))).thenReturn(new ProductLookupDTO(products, List.of(3L)));
+
+        mockMvc.perform(get("/api/products").param("ids", "2,1,3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products.2.name").value("Product 2"))
+                .andExpect(jsonPath("$.products.1.name").value("Product 1"))
+                .andExpect(jsonPath("$.missing[0]").value(3));
+        verify(productService, never()).getAllProducts(any());
+    }
+
+    @Test
+    void lookupProducts_TakesTheIdsFromTheBody() throws Exception {
+        when(productService.getProductsByIds(List.of(1L, 2L))).thenReturn(new ProductLookupDTO(Map.of(1L, product1), List.of(2L)));
+
+        mockMvc.perform(post("/api/products/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products.1.name").value("Product 1"))
+                .andExpect(jsonPath("$.missing[0]").value(2));
+    }
+
     @Test
     void getAllProducts_ShouldReturnNoContent_WhenNoProducts() throws Exception {
         List<ProductDTO> productDTOS = new ArrayList<>();
 
-        when(productService.getAllProducts()).thenReturn(productDTOS);
+        when(productService.getAllProducts(any())).thenReturn(Optional.of(productDTOS));
 
         mockMvc.perform(get("/api/products"))
                 .andExpect(status().isNoContent());
@@ -87,18 +164,81 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
                 .andExpect(jsonPath("$.price").value(10.0));
     }
 
+    private static Optional<VersionedProductView> versioned(ProductDTO product, long version) {
+        return Optional.of(new VersionedProductView(1L, product.name(), product.price(), product.date(), version, Instant.EPOCH));
+    }
+
     @Test
     void getProductById_Found() throws Exception {
-        when(productService.getProductById(1L)).thenReturn(Optional.of(product1));
+        when(productService.getVersionedProduct(1L)).thenReturn(versioned(product1, 3L));
+
+        mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Product 1"));
+    }
+
+    @Test
+    void getProductById_SetsTheValidators() throws Exception {
+        when(productService.getProductVersion(1L)).thenReturn(Optional.of(new ProductVersionView(1L, 3L, Instant.parse("2024-09-01T10:00:00Z"))));
+        when(productService.getVersionedProduct(1L)).thenReturn(versioned(product1, 3L));
+
+        mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1-3\""))
+                .andExpect(header().string(HttpHeaders.LAST_MODIFIED, "Sun, 01 Sep 2024 10:00:00 GMT"));
+    }
+
+    @Test
+    void getProductById_NotModified() throws Exception {
+        when(productService.getProductVersion(1L)).thenReturn(Optional.of(new ProductVersionView(1L, 3L, Instant.EPOCH)));
+
+        mockMvc.perform(get("/api/products/1").header(HttpHeaders.IF_NONE_MATCH, "\"1-3\""))
+                .andExpect(status().isNotModified());
+        verify(productService, never()).getVersionedProduct(anyLong());
+    }
+
+    @Test
+    void getProductById_ModifiedAfterTheCachedCopy() throws Exception {
+        when(productService.getProductVersion(1L)).thenReturn(Optional.of(new ProductVersionView(1L, 4L, Instant.EPOCH)));
+        when(productService.getVersionedProduct(1L)).thenReturn(versioned(product1, 4L));
+
+        mockMvc.perform(get("/api/products/1").header(HttpHeaders.IF_NONE_MATCH, "\"1-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1-4\""));
+    }
+
+    @Test
+    void getProductById_ServesTheCachedBodyWhileTheVersionHolds() throws Exception {
+        when(productService.getProductVersion(1L)).thenReturn(Optional.of(new ProductVersionView(1L, 3L, Instant.EPOCH)));
+        when(productService.getVersionedProduct(1L)).thenReturn(versioned(product1, 3L));
 
+        mockMvc.perform(get("/api/products/1")).andExpect(status().isOk());
         mockMvc.perform(get("/api/products/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name").value("Product 1"));
+        verify(productService, times(1)).getVersionedProduct(1L);
+
+        when(productService.getProductVersion(1L)).thenReturn(Optional.of(new ProductVersionView(1L, 4L, Instant.EPOCH)));
+        when(productService.getVersionedProduct(1L)).thenReturn(versioned(product2, 4L));
+        mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Product 2"));
+    }
+
+    @Test
+    void getAllProducts_NotModified() throws Exception {
+        when(productService.getAllProducts(any())).thenAnswer(invocation -> {
+            Predicate<Optional<CatalogVersionView>> notModified = invocation.getArgument(0);
+            return notModified.test(Optional.of(new CatalogVersionView(2, Instant.EPOCH))) ? Optional.empty() : Optional.of(List.of(product1));
+        });
+
+        mockMvc.perform(get("/api/products").header(HttpHeaders.IF_NONE_MATCH, "W/\"2-0\""))
+                .andExpect(status().isNotModified());
     }
 
     @Test
     void getProductById_NotFound() throws Exception {
-        when(productService.getProductById(1L)).thenReturn(Optional.empty());
+        when(productService.getVersionedProduct(1L)).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/api/products/1"))
                 .andExpect(status().isNotFound());
@@ -117,6 +257,37 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
                 .andExpect(jsonPath("$.price").value(20.0));
     }
 
+    @Test
+    void updateProduct_WithIfMatch_UpdatesThatVersionAndReturnsTheNextETag() throws Exception {
+        ProductDTO updatedProductDTO = new ProductDTO("Updated Product", 20.0f, LocalDate.of(2024, 9, 1));
+        when(productService.updateProduct(eq(1L), any(ProductDTO.class), eq(3L))).thenReturn(updatedProductDTO);
+
+        mockMvc.perform(put("/api/products/1")
+                        .header(HttpHeaders.IF_MATCH, "W/\"1-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Updated Product\", \"price\": 20.0, \"date\": \"2024-09-01\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1-4\""));
+        verify(productService, never()).updateProduct(anyLong(), any(ProductDTO.class));
+    }
+
+    @Test
+    void updateProduct_WithStaleOrForeignIfMatch_FailsThePrecondition() throws Exception {
+        when(productService.updateProduct(eq(1L), any(ProductDTO.class), eq(2L)))
+                .thenThrow(new PreconditionFailedException("The product changed since version 2, read it again"));
+        String body = "{\"name\": \"Updated Product\", \"price\": 20.0, \"date\": \"2024-09-01\"}";
+
+        mockMvc.perform(put("/api/products/1").header(HttpHeaders.IF_MATCH, "\"1-2\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/products/1").header(HttpHeaders.IF_MATCH, "W/\"7-2\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/products/1").header(HttpHeaders.IF_MATCH, "1-2")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void deleteProduct() throws Exception {
         Mockito.doNothing().when(productService).deleteProduct(7L);
@@ -125,4 +296,235 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
                 .andExpect(status().isNoContent());
     }
 
-}
\ No newline at end of file
+    @Test
+    void getProductsPage_ReturnsProductsAndNextCursor() throws Exception {
+        when(productService.getProductsPage(null, 2)).thenReturn(new ProductPageDTO(List.of(product1, product2), "abc"));
+
+        mockMvc.perform(get("/api/products/page").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products.size()").value(2))
+                .andExpect(jsonPath("$.nextCursor").value("abc"));
+    }
+
+    @Test
+    void getProductsPage_IsGzippedForClientsThatAcceptIt() throws Exception {
+        List<ProductDTO> products = new ArrayList<>();
+        for (int i = 0; i < 50; i++)
+            products.add(new ProductDTO("Product " + i, i, LocalDate.now()));
+        when(productService.getProductsPage(null, 50)).thenReturn(new ProductPageDTO(products, null));
+
+        mockMvc.perform(get("/api/products/page").param("size", "50").header(HttpHeaders.ACCEPT_ENCODING, "gzip, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING));
+        mockMvc.perform(get("/api/products/page").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$.products.size()").value(50));
+        verify(productService, times(1)).getProductsPage(null, 50);
+    }
+
+    @Test
+    void getProductsPage_NegotiatesCborAndSmile() throws Exception {
+        when(productService.getProductsPage(null, 2)).thenReturn(new ProductPageDTO(List.of(product1, product2), null));
+
+        byte[] cbor = mockMvc.perform(get("/api/products/page").param("size", "2").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE))
+                .andReturn().getResponse().getContentAsByteArray();
+        ProductPageDTO page = new ObjectMapper(new CBORFactory()).findAndRegisterModules().readValue(cbor, ProductPageDTO.class);
+        assertEquals(List.of(product1, product2), page.products());
+
+        mockMvc.perform(get("/api/products/1").accept(ContentNegotiationConfig.APPLICATION_SMILE))
+                .andExpect(status().isNotFound());
+        when(productService.getVersionedProduct(1L)).thenReturn(versioned(product1, 3L));
+        mockMvc.perform(get("/api/products/1").accept(ContentNegotiationConfig.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-jackson-smile"))
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1-3\""));
+        mockMvc.perform(get("/api/products/1").accept(ContentNegotiationConfig.APPLICATION_SMILE)
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"1-3\""))
+                .andExpect(status().isNotModified());
+        verify(productService, never()).getProductVersion(anyLong());
+        verify(productService, never()).getProductById(anyLong());
+    }
+
+    @Test
+    void getProductsPage_WithFilterOrSort_UsesFilteredPage() throws Exception {
+        ProductFilter filter = new ProductFilter(5f, 20f, LocalDate.of(2024, 1, 1), null, "Pro");
+        when(productService.getFilteredPage(filter, ProductSort.PRICE, true, null, 2))
+                .thenReturn(new ProductPageDTO(List.of(product2, product1), "next"));
+
+        mockMvc.perform(get("/api/products/page").param("size", "2")
+                        .param("minPrice", "5").param("maxPrice", "20").param("from", "2024-01-01").param("name", "Pro")
+                        .param("sort", "price").param("direction", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products[0].name").value(product2.name()))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+        verify(productService, never()).getProductsPage(any(), anyInt());
+    }
+
+    @Test
+    void getProductsPage_UnknownSortOrDirection_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/products/page").param("sort", "password"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products/page").param("direction", "sideways"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void exportProducts_WritesTheFileAsAnAttachment() throws Exception {
+        when(productTransferService.exportProducts(eq(ProductFileFormat.NDJSON), any())).thenAnswer(invocation -> {
+            invocation.getArgument(1, Writer.class).write("{\"id\":1}\n");
+            return 1L;
+        });
+
+        mockMvc.perform(get("/api/products/export").param("format", "ndjson"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products.ndjson\""))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+
+    @Test
+    void exportProducts_UnknownFormat_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/products/export").param("format", "xlsx"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(productTransferService);
+    }
+
+    @Test
+    void importProducts_ReturnsTheReport() throws Exception {
+        ProductImportReportDTO report = new ProductImportReportDTO(1, 1, List.of(new ProductImportReportDTO.RejectedRow(3, "price is not a number")));
+        when(productTransferService.importProducts(eq(ProductFileFormat.CSV), any())).thenAnswer(invocation -> {
+            assertEquals("name,price\nP,1\nQ,x\n", new BufferedReader(invocation.getArgument(1, Reader.class))
+                    .lines().collect(Collectors.joining("\n", "", "\n")));
+            return report;
+        });
+
+        mockMvc.perform(post("/api/products/import").contentType("text/csv").content("name,price\nP,1\nQ,x\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.rejectedRows[0].line").value(3))
+                .andExpect(jsonPath("$.rejectedRows[0].reason").value("price is not a number"));
+    }
+
+    @Test
+    void importProducts_OtherContentType_IsUnsupported() throws Exception {
+        mockMvc.perform(post("/api/products/import").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isUnsupportedMediaType());
+        verifyNoInteractions(productTransferService);
+    }
+
+    @Test
+    void getProductsPage_InvalidCursor_ReturnsBadRequest() throws Exception {
+        when(productService.getProductsPage(eq("???"), anyInt())).thenThrow(new BadRequestException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/products/page").param("cursor", "???"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamAllProducts_WritesJsonArray() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<ProductDTO> consumer = invocation.getArgument(0);
+            consumer.accept(product1);
+            consumer.accept(product2);
+            return null;
+        }).when(productService).streamAllProducts(any());
+
+        mockMvc.perform(get("/api/products/stream"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(2))
+                .andExpect(jsonPath("$[1].name").value("Product 2"));
+    }
+
+    @Test
+    void createProducts_ReturnsStatusPerItem() throws Exception {
+        when(productBatchService.createProducts(any())).thenAnswer(invocation -> {
+            Iterator<ProductDTO> productDTOs = invocation.getArgument(0);
+            List<Integer> statuses = new ArrayList<>();
+            productDTOs.forEachRemaining(productDTO -> statuses.add(productDTO == null ? 400 : 201));
+            return statuses;
+        });
+
+        mockMvc.perform(post("/api/products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\": \"Product 1\", \"price\": 10.0, \"date\": \"2024-09-01\"}, null]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(2))
+                .andExpect(jsonPath("$[0]").value(201))
+                .andExpect(jsonPath("$[1]").value(400));
+    }
+
+    @Test
+    void createProducts_ShouldReturnBadRequest_When_BodyIsNotAnArray() throws Exception {
+        mockMvc.perform(post("/api/products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Product 1\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createProducts_MalformedElement_ReturnsTheStatusesWrittenBeforeIt() throws Exception {
+        when(productBatchService.createProducts(any()))
+                .thenThrow(new PartialBatchException("Malformed JSON at element 2", List.of(201, 400)));
+
+        mockMvc.perform(post("/api/products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Malformed JSON at element 2"))
+                .andExpect(jsonPath("$.statuses.size()").value(2))
+                .andExpect(jsonPath("$.statuses[1]").value(400));
+    }
+
+    @Test
+    void updateProducts_ReturnsStatusPerItem() throws Exception {
+        when(productBatchService.updateProducts(any())).thenAnswer(invocation -> {
+            Iterator<ProductUpdateDTO> updates = invocation.getArgument(0);
+            List<Integer> statuses = new ArrayList<>();
+            updates.forEachRemaining(update -> statuses.add(update.id() == 1L ? 200 : 404));
+            return statuses;
+        });
+
+        mockMvc.perform(put("/api/products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\": 1, \"name\": \"Updated\"}, {\"id\": 2, \"name\": \"Missing\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value(200))
+                .andExpect(jsonPath("$[1]").value(404));
+    }
+
+    @Test
+    void deleteProducts_ReturnsStatusPerItem() throws Exception {
+        when(productBatchService.deleteProducts(any())).thenAnswer(invocation -> {
+            Iterator<Long> ids = invocation.getArgument(0);
+            List<Integer> statuses = new ArrayList<>();
+            ids.forEachRemaining(id -> statuses.add(id == 7L ? 204 : 404));
+            return statuses;
+        });
+
+        mockMvc.perform(delete("/api/products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[7, 8]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value(204))
+                .andExpect(jsonPath("$[1]").value(404));
+    }
+
+    @Test
+    void searchProducts_ReturnsMatchingPage() throws Exception {
+        when(productSearchService.searchProducts("prod", true, null, 20))
+                .thenReturn(new ProductPageDTO(List.of(product1, product2), null));
+
+        mockMvc.perform(get("/api/products/search").param("q", "prod"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products.size()").value(2))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+}
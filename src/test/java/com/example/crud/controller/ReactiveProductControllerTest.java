@@ -0,0 +1,93 @@
+package com.example.crud.controller;
+
+import com.example.crud.dto.ProductDTO;
+import com.example.crud.exception.ResourceNotFoundException;
+import com.example.crud.service.ReactiveProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = ReactiveProductController.class, properties = "products.reactive.stream-timeout=300ms")
+class ReactiveProductControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReactiveProductService reactiveProductService;
+
+    private final ProductDTO product1 = new ProductDTO("Product 1", 10.0f, LocalDate.of(2024, 9, 1));
+    private final ProductDTO product2 = new ProductDTO("Product 2", 15.0f, LocalDate.of(2024, 9, 1));
+
+    @Test
+    void getAllProducts_StreamsOneProductPerLine() throws Exception {
+        when(reactiveProductService.getAllProducts()).thenReturn(Flux.just(product1, product2));
+
+        MvcResult result = mockMvc.perform(get("/api/reactive/products"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("""
+                        {"name":"Product 1","price":10.0,"date":"2024-09-01"}
+                        {"name":"Product 2","price":15.0,"date":"2024-09-01"}
+                        """));
+    }
+
+    @Test
+    void getAllProducts_IsCutAtTheStreamTimeout() throws Exception {
+        when(reactiveProductService.getAllProducts()).thenReturn(Flux.concat(Flux.just(product1), Flux.never()));
+
+        MvcResult result = mockMvc.perform(get("/api/reactive/products"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // No servlet async timeout on the stream, only the configured one.
+        assertEquals(-1, result.getRequest().getAsyncContext().getTimeout());
+        assertInstanceOf(TimeoutException.class, result.getAsyncResult(5000));
+    }
+
+    @Test
+    void getProductById_NotFound() throws Exception {
+        when(reactiveProductService.getProductById(1L))
+                .thenReturn(Mono.error(new ResourceNotFoundException("Product not found")));
+
+        MvcResult result = mockMvc.perform(get("/api/reactive/products/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void deleteProduct() throws Exception {
+        when(reactiveProductService.deleteProduct(7L)).thenReturn(Mono.empty());
+
+        MvcResult result = mockMvc.perform(delete("/api/reactive/products/7"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNoContent());
+    }
+}
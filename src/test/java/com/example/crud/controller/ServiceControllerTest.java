@@ -0,0 +1,117 @@
+package com.example.crud.controller;
+
+import com.example.crud.dto.PageDTO;
+import com.example.crud.dto.ServiceDTO;
+import com.example.crud.exception.ResourceNotFoundException;
+import com.example.crud.service.ServiceCrudService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ServiceController.class)
+class ServiceControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ServiceCrudService serviceCrudService;
+
+    private final ServiceDTO service = new ServiceDTO("Service 1", 10.0f, LocalDate.of(2024, 9, 1));
+
+    @BeforeEach
+    void setUp() {
+        when(serviceCrudService.getEntityName()).thenReturn("Service");
+    }
+
+    @Test
+    void getPage_ReturnsTheItemsAndTheNextCursor() throws Exception {
+        when(serviceCrudService.getPage(null, 20)).thenReturn(new PageDTO<>(List.of(service), "next"));
+
+        mockMvc.perform(get("/api/services"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("Service 1"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void getById_ReturnsTheService() throws Exception {
+        when(serviceCrudService.getById(1L)).thenReturn(Optional.of(service));
+
+        mockMvc.perform(get("/api/services/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Service 1"))
+                .andExpect(jsonPath("$.date").value("2024-09-01"));
+    }
+
+    @Test
+    void getById_Returns404_When_Missing() throws Exception {
+        when(serviceCrudService.getById(2L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/services/2"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void create_BindsTheBodyToTheDto() throws Exception {
+        when(serviceCrudService.create(service)).thenReturn(service);
+
+        mockMvc.perform(post("/api/services")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Service 1\", \"price\": 10.0, \"date\": \"2024-09-01\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Service 1"));
+    }
+
+    @Test
+    void update_Returns404_When_Missing() throws Exception {
+        when(serviceCrudService.update(eq(2L), any())).thenThrow(new ResourceNotFoundException("Service not found"));
+
+        mockMvc.perform(put("/api/services/2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Service 1\", \"price\": 10.0, \"date\": \"2024-09-01\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void delete_Returns204() throws Exception {
+        mockMvc.perform(delete("/api/services/1"))
+                .andExpect(status().isNoContent());
+
+        verify(serviceCrudService).delete(1L);
+    }
+
+    @Test
+    void createAll_ReturnsStatusPerItem() throws Exception {
+        when(serviceCrudService.createAll(any())).thenAnswer(invocation -> {
+            Iterator<ServiceDTO> services = invocation.getArgument(0);
+            List<Integer> statuses = new ArrayList<>();
+            services.forEachRemaining(dto -> statuses.add(dto == null ? 400 : 201));
+            return statuses;
+        });
+
+        mockMvc.perform(post("/api/services/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\": \"Service 1\", \"price\": 10.0, \"date\": \"2024-09-01\"}, null]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value(201))
+                .andExpect(jsonPath("$[1]").value(400));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.crud.datasource;
+
+import com.example.crud.config.RoutingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaPoolTest {
+
+    private static HikariDataSource pool(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        return dataSource;
+    }
+
+    @Test
+    void leastConnections_picksTheLeastBusyReplica() throws Exception {
+        try (ReplicaPool replicaPool = new ReplicaPool(List.of(
+                new ReplicaPool.Replica("busy", pool("pool-busy")),
+                new ReplicaPool.Replica("idle", pool("pool-idle"))), RoutingProperties.Strategy.LEAST_CONNECTIONS);
+             Connection ignored = replicaPool.replicas().get(0).dataSource().getConnection()) {
+
+            assertEquals("idle", replicaPool.next().name());
+        }
+    }
+
+    @Test
+    void checkHealth_bringsReplicasBackOnceTheyAnswer() {
+        ReplicaPool replicaPool = new ReplicaPool(List.of(
+                new ReplicaPool.Replica("down", new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/none"))),
+                RoutingProperties.Strategy.ROUND_ROBIN);
+
+        replicaPool.checkHealth();
+
+        assertFalse(replicaPool.replicas().get(0).healthy());
+        assertNull(replicaPool.next()); // the caller falls back to the primary
+    }
+}
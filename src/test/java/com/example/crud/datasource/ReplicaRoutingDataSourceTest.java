@@ -0,0 +1,116 @@
+package com.example.crud.datasource;
+
+import com.example.crud.config.RoutingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Three H2 databases stand in for the primary and two replicas, each one knows its own name.
+class ReplicaRoutingDataSourceTest {
+
+    private final ReadYourWritesTracker readYourWritesTracker = new ReadYourWritesTracker(Duration.ofMinutes(1));
+    private ReplicaPool replicaPool;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbcTemplate.execute("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    @BeforeEach
+    void setUp() {
+        replicaPool = new ReplicaPool(List.of(
+                new ReplicaPool.Replica("replica-1", database("replica-1")),
+                new ReplicaPool.Replica("replica-2", database("replica-2"))), RoutingProperties.Strategy.ROUND_ROBIN);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(database("primary"), replicaPool, readYourWritesTracker));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    private String node(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private String replicaNode(TransactionTemplate transactionTemplate) {
+        return ReplicaReads.call(() -> node(transactionTemplate));
+    }
+
+    @Test
+    void readOnlyTransactions_areSpreadOverTheReplicas() {
+        List<String> nodes = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            nodes.add(replicaNode(readOnly));
+
+        assertEquals(List.of("replica-1", "replica-2", "replica-1", "replica-2"), nodes);
+    }
+
+    @Test
+    void writesAndNonTransactionalCalls_goToThePrimary() {
+        assertEquals("primary", node(readWrite));
+        assertEquals("primary", replicaNode(readWrite));
+        assertEquals("primary", jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void readOnlyTransactionsNotMarkedForReplicas_goToThePrimary() {
+        assertEquals("primary", node(readOnly));
+        assertEquals("replica-1", replicaNode(readOnly));
+        assertEquals("primary", node(readOnly));
+    }
+
+    @Test
+    void unhealthyReplicas_areSkipped() {
+        replicaPool = new ReplicaPool(List.of(
+                new ReplicaPool.Replica("replica-1", database("replica-1")),
+                new ReplicaPool.Replica("down", new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/none"))),
+                RoutingProperties.Strategy.ROUND_ROBIN);
+        replicaPool.checkHealth();
+        jdbcTemplate = new JdbcTemplate(new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(database("primary"), replicaPool, readYourWritesTracker)));
+        readOnly = new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        readOnly.setReadOnly(true);
+
+        assertEquals(1, replicaPool.healthyCount());
+        assertEquals("replica-1", replicaNode(readOnly));
+        assertEquals("replica-1", replicaNode(readOnly));
+    }
+
+    @Test
+    void readsAfterAWrite_stickToThePrimaryForTheSameClient() {
+        readYourWritesTracker.bind("client-1");
+        try {
+            node(readWrite);
+            assertEquals("primary", replicaNode(readOnly));
+        } finally {
+            readYourWritesTracker.clear();
+        }
+
+        readYourWritesTracker.bind("client-2");
+        try {
+            assertEquals("replica-1", replicaNode(readOnly));
+        } finally {
+            readYourWritesTracker.clear();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.crud.feed;
+
+import com.example.crud.dto.ProductChangeDTO;
+import com.example.crud.dto.ProductDTO;
+import com.example.crud.event.ProductChangedEvent;
+import com.example.crud.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductChangeFeedTest {
+
+    private final ProductChangeFeed feed = new ProductChangeFeed(3);
+
+    private static ProductChangedEvent created(long id) {
+        return ProductChangedEvent.created(id, new ProductDTO("Product " + id, 1.0f, LocalDate.now()));
+    }
+
+    private static List<Long> sequences(ProductChangeFeed.Batch batch) {
+        return batch.changes().stream().map(ProductChangeDTO::sequence).toList();
+    }
+
+    @Test
+    void read_returnsTheChangesFromTheGivenSequence() throws InterruptedException {
+        feed.append(created(1));
+        feed.append(created(2));
+        feed.append(ProductChangedEvent.deleted(1L));
+
+        ProductChangeFeed.Batch batch = feed.read(2, 10, 0, TimeUnit.MILLISECONDS);
+
+        assertEquals(List.of(2L, 3L), sequences(batch));
+        assertEquals(ProductChangedEvent.Type.DELETED, batch.changes().get(1).type());
+        assertFalse(batch.hasGap());
+        assertEquals(4, batch.next());
+    }
+
+    @Test
+    void read_isLimitedToMax() throws InterruptedException {
+        feed.append(created(1));
+        feed.append(created(2));
+
+        ProductChangeFeed.Batch batch = feed.read(1, 1, 0, TimeUnit.MILLISECONDS);
+
+        assertEquals(List.of(1L), sequences(batch));
+        assertEquals(2, batch.next());
+    }
+
+    @Test
+    void read_reportsAGapWhenTheChangesWereOverwritten() throws InterruptedException {
+        for (long id = 1; id <= 5; id++)
+            feed.append(created(id));
+
+        ProductChangeFeed.Batch batch = feed.read(1, 10, 0, TimeUnit.MILLISECONDS);
+
+        assertTrue(batch.hasGap());
+        assertEquals(3, batch.resumedAt());
+        assertEquals(List.of(3L, 4L, 5L), sequences(batch));
+    }
+
+    @Test
+    void read_treatsUnknownSequencesAsAGap() throws InterruptedException {
+        feed.append(created(1));
+
+        ProductChangeFeed.Batch batch = feed.read(50, 10, 0, TimeUnit.MILLISECONDS);
+
+        assertEquals(1, batch.resumedAt());
+        assertEquals(List.of(1L), sequences(batch));
+    }
+
+    @Test
+    void sequenceOf_onlyKnowsTheEventIdsOfThisRun() {
+        assertEquals(7, feed.sequenceOf(feed.eventId(7)));
+        assertEquals(ProductChangeFeed.UNKNOWN_SEQUENCE, feed.sequenceOf(new ProductChangeFeed(3).eventId(7)));
+        assertEquals(ProductChangeFeed.UNKNOWN_SEQUENCE, feed.sequenceOf("7-7"));
+        assertThrows(BadRequestException.class, () -> feed.sequenceOf("7"));
+        assertThrows(BadRequestException.class, () -> feed.sequenceOf(feed.eventId(7) + "x"));
+    }
+
+    @Test
+    void read_waitsForTheNextChange() throws Exception {
+        CompletableFuture<ProductChangeFeed.Batch> read = CompletableFuture.supplyAsync(() -> {
+            try {
+                return feed.read(1, 10, 5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        feed.append(created(1));
+
+        assertEquals(List.of(1L), sequences(read.get(5, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    void read_returnsNothingWhenTheWaitTimesOut() throws InterruptedException {
+        ProductChangeFeed.Batch batch = feed.read(feed.nextSequence(), 10, 10, TimeUnit.MILLISECONDS);
+
+        assertTrue(batch.changes().isEmpty());
+        assertEquals(1, batch.next());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.crud.feed;
+
+import com.example.crud.dto.ProductChangeDTO;
+import com.example.crud.dto.ProductDTO;
+import com.example.crud.event.ProductChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductChangeSubscriptionsTest {
+
+    private final ProductChangeFeed feed = new ProductChangeFeed(2);
+    private final ProductChangeSubscriptions subscriptions = new ProductChangeSubscriptions(feed, Duration.ofMillis(50));
+
+    // Keeps what would have been written to the client, one string per event.
+    private static class RecordingEmitter extends SseEmitter {
+        final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder event = new StringBuilder();
+            builder.build().forEach(part -> event.append(part.getData()));
+            events.add(event.toString());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscriptions.shutdown();
+    }
+
+    private static ProductChangedEvent updated(long id, String name) {
+        return ProductChangedEvent.updated(id, new ProductDTO(name, 1.0f, LocalDate.now()));
+    }
+
+    @Test
+    void subscribe_sendsAGapAndThenTheChangesStillKept() throws InterruptedException {
+        feed.append(updated(1, "A"));
+        feed.append(updated(2, "B"));
+        feed.append(updated(3, "C"));
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        subscriptions.subscribe(emitter, 1L, false);
+
+        String gap = emitter.events.poll(5, TimeUnit.SECONDS);
+        assertTrue(gap.startsWith("event:gap\nid:" + feed.eventId(1) + "\n"), gap);
+        assertTrue(emitter.events.poll(5, TimeUnit.SECONDS).startsWith("event:updated\nid:" + feed.eventId(2) + "\n"));
+        assertTrue(emitter.events.poll(5, TimeUnit.SECONDS).startsWith("event:updated\nid:" + feed.eventId(3) + "\n"));
+        emitter.complete();
+    }
+
+    @Test
+    void subscribe_sendsAGapForAnEventIdOfAnotherRun() throws InterruptedException {
+        feed.append(updated(1, "A"));
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        subscriptions.subscribe(emitter, feed.sequenceOf("otherrun-1"), false);
+
+        String gap = emitter.events.poll(5, TimeUnit.SECONDS);
+        assertTrue(gap.startsWith("event:gap\nid:" + feed.eventId(0) + "\n"), gap);
+        assertTrue(emitter.events.poll(5, TimeUnit.SECONDS).startsWith("event:updated\nid:" + feed.eventId(1) + "\n"));
+        emitter.complete();
+    }
+
+    @Test
+    void coalesce_keepsTheLatestChangeOfEachProduct() {
+        List<ProductChangeDTO> changes = List.of(
+                new ProductChangeDTO(1, ProductChangedEvent.Type.CREATED, 1L, null, null),
+                new ProductChangeDTO(2, ProductChangedEvent.Type.UPDATED, 2L, null, null),
+                new ProductChangeDTO(3, ProductChangedEvent.Type.DELETED, 1L, null, null));
+
+        List<ProductChangeDTO> coalesced = ProductChangeSubscriptions.coalesce(changes);
+
+        assertEquals(List.of(2L, 3L), coalesced.stream().map(ProductChangeDTO::sequence).toList());
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.crud.mapper;
+
+import com.example.crud.dto.ProductDTO;
+import com.example.crud.entity.Product;
+import com.example.crud.mapper.imp.GeneratedProductMapper;
+import com.example.crud.mapper.imp.ProductMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeneratedProductMapperTest {
+
+    private final GeneratedProductMapper generatedProductMapper = GeneratedProductMapper.INSTANCE;
+    private final ProductMapper productMapper = new ProductMapper();
+
+    @Test
+    void mapsLikeTheHandWrittenMapper() {
+        Product product = new Product(10L, "A product", 2.5f, LocalDate.of(2024, 9, 1));
+        ProductDTO productDTO = new ProductDTO("Another product", 1.0f, LocalDate.of(2024, 9, 2));
+
+        assertEquals(productMapper.toDto(product), generatedProductMapper.toDto(product));
+        assertEquals(productMapper.toEntity(productDTO), generatedProductMapper.toEntity(productDTO));
+        assertEquals(productMapper.toDtos(List.of(product)), generatedProductMapper.toDtos(List.of(product)));
+    }
+
+    @Test
+    void toEntity_leavesTheGeneratedColumnsUnset() {
+        Product product = generatedProductMapper.toEntity(new ProductDTO("A product", 1.0f, LocalDate.now()));
+
+        assertNull(product.getId());
+        assertNull(product.getVersion());
+        assertNull(product.getUpdatedAt());
+        assertNull(generatedProductMapper.toDto(null));
+    }
+}
@@ -34,25 +34,21 @@ class ProductMapperTest {
         ProductDTO productDTO = productMapper.toDto(product);
 
         assertNotNull(productDTO);
-        assertEquals(product.getName(), productDTO.getName());
-        assertEquals(product.getPrice(), productDTO.getPrice());
-        assertEquals(product.getDate(), productDTO.getDate());
+        assertEquals(product.getName(), productDTO.name());
+        assertEquals(product.getPrice(), productDTO.price());
+        assertEquals(product.getDate(), productDTO.date());
     }
 
     @Test
     void dtoToEntity() {
-        ProductDTO productDTO = ProductDTO.builder()
-                .name("Another product")
-                .price(1.00f)
-                .date(LocalDate.now())
-                .build();
+        ProductDTO productDTO = new ProductDTO("Another product", 1.00f, LocalDate.now());
 
         Product product = productMapper.toEntity(productDTO);
 
         assertNotNull(product);
-        assertEquals(productDTO.getName(), product.getName());
-        assertEquals(productDTO.getPrice(), product.getPrice());
-        assertEquals(productDTO.getDate(), product.getDate());
+        assertEquals(productDTO.name(), product.getName());
+        assertEquals(productDTO.price(), product.getPrice());
+        assertEquals(productDTO.date(), product.getDate());
     }
 
     @Test
@@ -77,8 +73,8 @@ class ProductMapperTest {
 
         assertNotNull(productDTOs);
         assertEquals(2, productDTOs.size());
-        assertEquals("Product 1", productDTOs.get(0).getName());
-        assertEquals("Product 2", productDTOs.get(1).getName());
+        assertEquals("Product 1", productDTOs.get(0).name());
+        assertEquals("Product 2", productDTOs.get(1).name());
     }
 
     @Test
@@ -0,0 +1,60 @@
+package com.example.crud.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlBudgetFilterTest {
+
+    private SqlStatementCounter statementCounter;
+    private SimpleMeterRegistry meterRegistry;
+    private SqlBudgetFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        statementCounter = new SqlStatementCounter();
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new SqlBudgetFilter(statementCounter, meterRegistry, 2, List.of("/api/products/batch"));
+    }
+
+    private void perform(String uri, int statements) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, uri);
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            for (int i = 0; i < statements; i++)
+                statementCounter.inspect("select 1");
+        });
+    }
+
+    @Test
+    void requestWithinBudget_IsOnlyRecorded() throws Exception {
+        perform("/api/products/page", 2);
+
+        assertEquals(1, meterRegistry.get("sql.statements.per.request").summary().count());
+        assertNull(meterRegistry.find("sql.budget.exceeded").counter());
+    }
+
+    @Test
+    void requestOverBudget_IsFlagged() throws Exception {
+        perform("/api/products/page", 3);
+        perform("/api/products/page", 5);
+
+        assertEquals(2.0, meterRegistry.get("sql.budget.exceeded").tag("uri", "/api/products/page").counter().count());
+        assertEquals(5.0, meterRegistry.get("sql.statements.per.request").summary().max());
+    }
+
+    @Test
+    void excludedPath_IsNotChecked() throws Exception {
+        perform("/api/products/batch", 100);
+
+        assertNull(meterRegistry.find("sql.budget.exceeded").counter());
+        assertNull(meterRegistry.find("sql.statements.per.request").summary());
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.crud.outbox;
+
+import com.example.crud.entity.OutboxEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileOutboxPublisherTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void publish_AppendsOneLinePerEvent(@TempDir Path directory) throws Exception {
+        Path path = directory.resolve("outbox/events.ndjson");
+        FileOutboxPublisher publisher = new FileOutboxPublisher(objectMapper, path);
+
+        publisher.publish(List.of(new OutboxEvent(1L, "product", 1L, "CREATED", "{}", Instant.now())));
+        publisher.publish(List.of(new OutboxEvent(2L, "product", 1L, "DELETED", "{}", Instant.now())));
+
+        List<String> lines = Files.readAllLines(path);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).contains("\"eventType\":\"DELETED\""));
+        assertEquals(2L, objectMapper.readValue(lines.get(1), OutboxEvent.class).getId());
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.crud.outbox;
+
+import com.example.crud.entity.OutboxEvent;
+import com.example.crud.repository.IOutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OutboxDispatcherTest {
+
+    private final IOutboxEventRepository outboxEventRepository = mock(IOutboxEventRepository.class);
+    private final OutboxPublisher outboxPublisher = mock(OutboxPublisher.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OutboxDispatcher outboxDispatcher;
+
+    private final OutboxEvent event1 = new OutboxEvent(1L, "product", 1L, "CREATED", "{}", Instant.now());
+    private final OutboxEvent event2 = new OutboxEvent(2L, "product", 2L, "DELETED", "{}", Instant.now());
+    private final OutboxEvent event3 = new OutboxEvent(3L, "product", 1L, "UPDATED", "{}", Instant.now());
+
+    @BeforeEach
+    void setUp() {
+        outboxDispatcher = new OutboxDispatcher(outboxEventRepository, outboxPublisher,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), meterRegistry, 2);
+    }
+
+    @Test
+    void dispatch_PublishesAndDeletesBatchesUntilTheOutboxIsDrained() throws Exception {
+        when(outboxEventRepository.lockNextBatch(any(Pageable.class)))
+                .thenReturn(List.of(event1, event2))
+                .thenReturn(List.of(event3));
+
+        outboxDispatcher.dispatch();
+
+        verify(outboxPublisher).publish(List.of(event1, event2));
+        verify(outboxPublisher).publish(List.of(event3));
+        verify(outboxEventRepository).deleteAllInBatch(List.of(event1, event2));
+        verify(outboxEventRepository).deleteAllInBatch(List.of(event3));
+        assertEquals(3, meterRegistry.counter("outbox.published").count());
+    }
+
+    @Test
+    void dispatch_KeepsTheBatchWhenThePublisherFails() throws Exception {
+        when(outboxEventRepository.lockNextBatch(any(Pageable.class))).thenReturn(List.of(event1));
+        doThrow(new IllegalStateException("broker down")).when(outboxPublisher).publish(any());
+
+        outboxDispatcher.dispatch();
+
+        verify(outboxEventRepository, never()).deleteAllInBatch(any());
+        assertEquals(1, meterRegistry.counter("outbox.failures").count());
+        assertEquals(0, meterRegistry.counter("outbox.published").count());
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.crud.outbox;
+
+import com.example.crud.dto.ProductDTO;
+import com.example.crud.entity.OutboxEvent;
+import com.example.crud.event.ProductChangedEvent;
+import com.example.crud.repository.IOutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class OutboxWriterTest {
+
+    private final IOutboxEventRepository outboxEventRepository = mock(IOutboxEventRepository.class);
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final OutboxWriter outboxWriter = new OutboxWriter(outboxEventRepository, objectMapper);
+
+    @Test
+    void onProductChanged_StoresTheEventAsJson() throws Exception {
+        ProductDTO productDTO = new ProductDTO("Product 1", 10.0f, LocalDate.of(2024, 9, 1));
+
+        outboxWriter.onProductChanged(ProductChangedEvent.updated(7L, productDTO));
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(captor.capture());
+        OutboxEvent event = captor.getValue();
+        assertEquals("product", event.getAggregateType());
+        assertEquals(7L, event.getAggregateId());
+        assertEquals("UPDATED", event.getEventType());
+        assertEquals(ProductChangedEvent.updated(7L, productDTO),
+                objectMapper.readValue(event.getPayload(), ProductChangedEvent.class));
+    }
+}
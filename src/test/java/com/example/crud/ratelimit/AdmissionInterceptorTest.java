@@ -0,0 +1,102 @@
+package com.example.crud.ratelimit;
+
+import com.example.crud.config.AdmissionProperties;
+import com.example.crud.exception.GlobalExceptionHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AdmissionInterceptorTest {
+
+    @RestController
+    static class TestController {
+
+        CountDownLatch release = new CountDownLatch(0);
+
+        @GetMapping("/list")
+        public String list() {
+            return "list";
+        }
+
+        @GetMapping("/one")
+        public String one() throws InterruptedException {
+            release.await();
+            return "one";
+        }
+    }
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TestController controller = new TestController();
+    private ConcurrencyLimiter concurrencyLimiter;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        setUp(new AdmissionProperties.Concurrency(true, 1, 1, 1, 0.9, Duration.ofSeconds(5)));
+    }
+
+    private void setUp(AdmissionProperties.Concurrency concurrency) {
+        AdmissionProperties properties = new AdmissionProperties(true, "X-Api-Key", 1000, Duration.ofMinutes(10),
+                new AdmissionProperties.Limit(1000, 1000), Map.of("list", new AdmissionProperties.Limit(0.01, 2)),
+                Set.of("list"), concurrency);
+        concurrencyLimiter = new ConcurrencyLimiter(properties.concurrency(), () -> false);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .addInterceptors(new AdmissionInterceptor(new RateLimiter(properties, System::nanoTime), concurrencyLimiter,
+                        properties.apiKeyHeader(), properties.untimedRoutes(), meterRegistry))
+                .build();
+    }
+
+    @Test
+    void overTheRouteLimit_answers429WithRetryAfter() throws Exception {
+        mockMvc.perform(get("/list").header("X-Api-Key", "a")).andExpect(status().isOk());
+        mockMvc.perform(get("/list").header("X-Api-Key", "a")).andExpect(status().isOk());
+        mockMvc.perform(get("/list").header("X-Api-Key", "a"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        mockMvc.perform(get("/list").header("X-Api-Key", "b")).andExpect(status().isOk());
+        mockMvc.perform(get("/one").header("X-Api-Key", "a")).andExpect(status().isOk());
+        assertEquals(1, meterRegistry.get("admission.rejected").tag("route", "list").tag("reason", "rate").counter().count());
+    }
+
+    @Test
+    void overTheConcurrencyLimit_answers503AndReleasesTheSlotAfterwards() throws Exception {
+        concurrencyLimiter.tryAcquire(); // another request holds the only slot
+
+        mockMvc.perform(get("/one"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+
+        concurrencyLimiter.release(0);
+        mockMvc.perform(get("/one")).andExpect(status().isOk());
+        assertEquals(0, concurrencyLimiter.inFlight());
+    }
+
+    @Test
+    void untimedRoutes_doNotMoveTheConcurrencyLimit() throws Exception {
+        setUp(new AdmissionProperties.Concurrency(true, 10, 1, 20, 0.5, Duration.ofNanos(1))); // every request is slow
+
+        mockMvc.perform(get("/list")).andExpect(status().isOk());
+        assertEquals(10, concurrencyLimiter.limit());
+        assertEquals(0, concurrencyLimiter.inFlight());
+
+        mockMvc.perform(get("/one")).andExpect(status().isOk());
+        assertEquals(5, concurrencyLimiter.limit());
+    }
+}
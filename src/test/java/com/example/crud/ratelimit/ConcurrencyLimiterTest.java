@@ -0,0 +1,71 @@
+package com.example.crud.ratelimit;
+
+import com.example.crud.config.AdmissionProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    private final AtomicBoolean congested = new AtomicBoolean();
+    private final ConcurrencyLimiter limiter = new ConcurrencyLimiter(
+            new AdmissionProperties.Concurrency(true, 4, 2, 8, 0.5, Duration.ofMillis(500)), congested::get);
+
+    @Test
+    void rejectsOverTheLimit() {
+        for (int i = 0; i < 4; i++)
+            assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release(FAST);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void backsOffOnSlowRequestsAndOnPoolWaits_downToTheMinimum() {
+        limiter.tryAcquire();
+        limiter.release(SLOW);
+        assertEquals(2, limiter.limit());
+
+        limiter.tryAcquire();
+        congested.set(true);
+        limiter.release(FAST);
+        assertEquals(2, limiter.limit());
+    }
+
+    @Test
+    void untimedReleases_onlyBackOffOnPoolWaits() {
+        for (int i = 0; i < 4; i++)
+            limiter.tryAcquire();
+        limiter.releaseUntimed();
+        assertEquals(4, limiter.limit()); // neither grown nor cut, however long it took
+        assertEquals(3, limiter.inFlight());
+
+        congested.set(true);
+        limiter.releaseUntimed();
+        assertEquals(2, limiter.limit());
+    }
+
+    @Test
+    void growsOnlyWhileTheLimitIsInUse_upToTheMaximum() {
+        limiter.tryAcquire();
+        limiter.release(FAST); // one in flight out of four
+        assertEquals(4, limiter.limit());
+
+        for (int i = 0; i < 100; i++) {
+            int admitted = 0;
+            while (limiter.tryAcquire())
+                admitted++;
+            for (int j = 0; j < admitted; j++)
+                limiter.release(FAST);
+        }
+        assertEquals(8, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+}
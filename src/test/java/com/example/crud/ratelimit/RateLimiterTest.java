@@ -0,0 +1,46 @@
+package com.example.crud.ratelimit;
+
+import com.example.crud.config.AdmissionProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private static AdmissionProperties properties(Map<String, AdmissionProperties.Limit> routes) {
+        return new AdmissionProperties(true, "X-Api-Key", 1000, Duration.ofMinutes(10),
+                new AdmissionProperties.Limit(1, 2), routes, Set.of(),
+                new AdmissionProperties.Concurrency(true, 20, 4, 200, 0.9, Duration.ofMillis(500)));
+    }
+
+    @Test
+    void bucketsAreKeptPerClientAndRoute() {
+        RateLimiter rateLimiter = new RateLimiter(properties(Map.of()), clock::get);
+
+        assertEquals(0, rateLimiter.tryAcquire("a", "getProductById"));
+        assertEquals(0, rateLimiter.tryAcquire("a", "getProductById"));
+        assertTrue(rateLimiter.tryAcquire("a", "getProductById") > 0);
+
+        assertEquals(0, rateLimiter.tryAcquire("b", "getProductById"));
+        assertEquals(0, rateLimiter.tryAcquire("a", "getProductsPage"));
+    }
+
+    @Test
+    void routesOverrideTheDefaultLimit() {
+        RateLimiter rateLimiter = new RateLimiter(properties(Map.of(
+                "getAllProducts", new AdmissionProperties.Limit(1, 1),
+                "streamAllProducts", new AdmissionProperties.Limit(0, 1))), clock::get);
+
+        assertEquals(0, rateLimiter.tryAcquire("a", "getAllProducts"));
+        assertTrue(rateLimiter.tryAcquire("a", "getAllProducts") > 0);
+        for (int i = 0; i < 10; i++)
+            assertEquals(0, rateLimiter.tryAcquire("a", "streamAllProducts")); // zero means no limit
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.crud.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsTheBurstThenOneTokenPerInterval() {
+        TokenBucket bucket = new TokenBucket(2, 3, 0); // a token every 500ms
+
+        for (int i = 0; i < 3; i++)
+            assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(SECOND / 2, bucket.tryAcquire(0));
+        assertEquals(SECOND / 4, bucket.tryAcquire(SECOND / 4));
+
+        assertEquals(0, bucket.tryAcquire(SECOND / 2));
+        assertTrue(bucket.tryAcquire(SECOND / 2) > 0);
+    }
+
+    @Test
+    void anIdleBucketRefillsUpToTheBurstOnly() {
+        TokenBucket bucket = new TokenBucket(10, 2, 0);
+
+        long later = 60 * SECOND;
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(0, bucket.tryAcquire(later));
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+
+    @Test
+    void concurrentCallers_neverTakeMoreThanTheBurst() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(0.001, 100, 0);
+        AtomicInteger granted = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 1000; i++)
+                executor.execute(() -> {
+                    if (bucket.tryAcquire(0) == 0)
+                        granted.incrementAndGet();
+                });
+        }
+
+        assertEquals(100, granted.get());
+    }
+}
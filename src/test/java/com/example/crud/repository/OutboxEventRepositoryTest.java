@@ -0,0 +1,57 @@
+package com.example.crud.repository;
+
+import com.example.crud.entity.OutboxEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not transactional: the lock is taken in its own transaction, like the dispatcher does.
+// H2 has no SKIP LOCKED (Hibernate renders a plain FOR UPDATE), skipping is PostgreSQL behaviour.
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxEventRepositoryTest {
+
+    @Autowired
+    private IOutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 4; id++)
+            outboxEventRepository.save(new OutboxEvent(null, "product", id, "CREATED", "{}", Instant.now()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAllInBatch();
+    }
+
+    private List<Long> lockIds(int size) {
+        return outboxEventRepository.lockNextBatch(PageRequest.ofSize(size)).stream()
+                .map(OutboxEvent::getAggregateId).toList();
+    }
+
+    @Test
+    void LockNextBatch_returnsTheOldestEvents() {
+        List<Long> ids = new TransactionTemplate(transactionManager).execute(status -> lockIds(3));
+
+        assertEquals(List.of(1L, 2L, 3L), ids);
+    }
+}
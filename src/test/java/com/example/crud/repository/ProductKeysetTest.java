@@ -0,0 +1,50 @@
+package com.example.crud.repository;
+
+import com.example.crud.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductKeysetTest {
+
+    private final ProductRowView row = new ProductRowView(42L, "a:b|c", 9.5f, LocalDate.of(2024, 3, 1), Instant.parse("2024-03-01T10:15:30Z"));
+
+    @Test
+    void encode_RoundTripsEverySort() {
+        for (ProductSort sort : ProductSort.values()) {
+            ProductKeyset keyset = ProductKeyset.after(sort, true, row);
+
+            assertEquals(keyset, ProductKeyset.decode(keyset.encode(), sort, true));
+        }
+    }
+
+    @Test
+    void encode_RoundTripsNullValues() {
+        ProductKeyset keyset = ProductKeyset.after(ProductSort.DATE, false, new ProductRowView(7L, "x", 1f, null, null));
+
+        assertNull(ProductKeyset.decode(keyset.encode(), ProductSort.DATE, false).value());
+    }
+
+    @Test
+    void decode_RejectsCursorOfAnotherOrder() {
+        String cursor = ProductKeyset.after(ProductSort.PRICE, false, row).encode();
+
+        assertThrows(BadRequestException.class, () -> ProductKeyset.decode(cursor, ProductSort.DATE, false));
+        assertThrows(BadRequestException.class, () -> ProductKeyset.decode(cursor, ProductSort.PRICE, true));
+    }
+
+    @Test
+    void decode_RejectsGarbage() {
+        assertThrows(BadRequestException.class, () -> ProductKeyset.decode("???", ProductSort.PRICE, false));
+        assertThrows(BadRequestException.class, () -> ProductKeyset.decode("azpQ", ProductSort.PRICE, false));
+    }
+
+    @Test
+    void fromAttribute_IgnoresCaseAndRejectsOthers() {
+        assertEquals(ProductSort.UPDATED_AT, ProductSort.fromAttribute("updatedat"));
+        assertThrows(BadRequestException.class, () -> ProductSort.fromAttribute("password"));
+    }
+}
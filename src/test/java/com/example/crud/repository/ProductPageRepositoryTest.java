@@ -0,0 +1,156 @@
+package com.example.crud.repository;
+
+import com.example.crud.entity.Product;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.crud.repository.ProductPageRepositoryTest$LastStatement")
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+class ProductPageRepositoryTest {
+
+    // Keeps the SQL Hibernate generated last, to check its plan.
+    public static class LastStatement implements StatementInspector {
+        static volatile String sql;
+
+        @Override
+        public String inspect(String sql) {
+            LastStatement.sql = sql;
+            return sql;
+        }
+    }
+
+    @Autowired
+    private IProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+            products.add(new Product("Product " + i, i % 10, i % 7 == 0 ? null : LocalDate.of(2024, 1, 1).plusDays(i % 5)));
+        products.add(new Product("100%_off", 5, LocalDate.of(2024, 1, 1)));
+        productRepository.saveAll(products);
+    }
+
+    // Walks every page the way the service does, collecting all rows.
+    private List<ProductRowView> walk(ProductFilter filter, ProductSort sort, boolean descending, int pageSize) {
+        List<ProductRowView> rows = new ArrayList<>();
+        ProductKeyset after = null;
+        while (true) {
+            Specification<Product> specification = ProductSpecifications.matching(filter);
+            if (after != null)
+                specification = specification.and(ProductSpecifications.after(ProductKeyset.decode(after.encode(), sort, descending)));
+            List<ProductRowView> page = productRepository.findPage(specification, sort, descending, pageSize);
+            rows.addAll(page);
+            if (page.size() < pageSize)
+                return rows;
+            after = ProductKeyset.after(sort, descending, page.get(page.size() - 1));
+        }
+    }
+
+    @Test
+    void sortedPages_VisitEveryRowOnceInOrder_EvenWithTiesAndNulls() {
+        for (ProductSort sort : ProductSort.values()) {
+            for (boolean descending : new boolean[]{false, true}) {
+                List<ProductRowView> rows = walk(ProductFilter.NONE, sort, descending, 7);
+
+                assertEquals(101, rows.stream().map(ProductRowView::id).distinct().count(), sort + " " + descending);
+                for (int i = 1; i < rows.size(); i++) {
+                    ProductRowView previous = rows.get(i - 1), row = rows.get(i);
+                    if (sort.valueOf(previous) == null)
+                        assertNull(sort.valueOf(row), "nulls come last");
+                    else if (sort.valueOf(row) != null) {
+                        int order = byValue(sort).compare(previous, row);
+                        assertTrue(descending ? order >= 0 : order <= 0, sort + " " + descending);
+                    }
+                }
+            }
+        }
+    }
+
+    // Order of the non-null values of the sort column.
+    private static Comparator<ProductRowView> byValue(ProductSort sort) {
+        return switch (sort) {
+            case ID -> Comparator.comparing(ProductRowView::id);
+            case NAME -> Comparator.comparing(ProductRowView::name);
+            case PRICE -> Comparator.comparing(ProductRowView::price);
+            case DATE -> Comparator.comparing(ProductRowView::date);
+            case UPDATED_AT -> Comparator.comparing(ProductRowView::updatedAt);
+        };
+    }
+
+    @Test
+    void filters_AreInclusiveRanges() {
+        List<ProductRowView> rows = walk(new ProductFilter(2f, 3f, LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 3), null),
+                ProductSort.PRICE, false, 5);
+
+        assertFalse(rows.isEmpty());
+        for (ProductRowView row : rows) {
+            assertTrue(row.price() >= 2f && row.price() <= 3f);
+            assertTrue(!row.date().isBefore(LocalDate.of(2024, 1, 2)) && !row.date().isAfter(LocalDate.of(2024, 1, 3)));
+        }
+    }
+
+    @Test
+    void namePrefix_MatchesLiterally() {
+        assertEquals(List.of("100%_off"), walk(new ProductFilter(null, null, null, null, "100%_"), ProductSort.NAME, false, 10)
+                .stream().map(ProductRowView::name).toList());
+        assertEquals(11, walk(new ProductFilter(null, null, null, null, "Product 1"), ProductSort.NAME, false, 10).size());
+    }
+
+    private String planOfLastQuery(Object... parameters) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + LastStatement.sql, String.class, parameters));
+    }
+
+    @Test
+    void priceRange_IsAnIndexRangeScan() {
+        productRepository.findPage(ProductSpecifications.matching(new ProductFilter(2f, 3f, null, null, null)),
+                ProductSort.PRICE, false, 20);
+
+        String plan = planOfLastQuery(2f, 3f, 20);
+        assertTrue(plan.contains("IDX_PRODUCT_PRICE_ID"), plan);
+    }
+
+    @Test
+    void dateRange_IsAnIndexRangeScan() {
+        productRepository.findPage(ProductSpecifications.matching(new ProductFilter(null, null, LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 3), null)),
+                ProductSort.DATE, false, 20);
+
+        String plan = planOfLastQuery(LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 3), 20);
+        assertTrue(plan.contains("IDX_PRODUCT_DATE_ID"), plan);
+    }
+
+    @Test
+    void namePrefix_IsAnIndexRangeScan() {
+        productRepository.findPage(ProductSpecifications.matching(new ProductFilter(null, null, null, null, "Product 1")),
+                ProductSort.NAME, false, 20);
+
+        String plan = planOfLastQuery("Product 1%", 20);
+        assertTrue(plan.contains("IDX_PRODUCT_NAME_ID"), plan);
+    }
+
+    @Test
+    void nextPriceSortedPage_StartsFromTheIndexPosition() {
+        productRepository.findPage(ProductSpecifications.after(new ProductKeyset(ProductSort.PRICE, false, 5f, 50L)),
+                ProductSort.PRICE, false, 20);
+
+        String plan = planOfLastQuery(5f, 5f, 50L, 20);
+        assertTrue(plan.contains("IDX_PRODUCT_PRICE_ID"), plan);
+    }
+}
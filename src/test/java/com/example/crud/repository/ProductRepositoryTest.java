@@ -1,6 +1,8 @@
 package com.example.crud.repository;
 
+import com.example.crud.dto.ProductDTO;
 import com.example.crud.entity.Product;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -8,10 +10,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -22,6 +28,9 @@ class ProductRepositoryTest {
     @Autowired
     private IProductRepository productRepository; //JPA automatically provides an implementation
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private Product product;
 
     @BeforeEach
@@ -91,4 +100,106 @@ class ProductRepositoryTest {
         assertTrue(products.isEmpty());
     }
 
+    @Test
+    void FindNextPage_returnsProductsAfterTheGivenId() {
+        Product product2 = productRepository.save(new Product(null, "Product 2", 2.00F, LocalDate.now()));
+        Product product3 = productRepository.save(new Product(null, "Product 3", 3.00F, LocalDate.now()));
+
+        List<Product> page = productRepository.findNextPage(product.getId(), PageRequest.ofSize(1));
+
+        assertEquals(1, page.size());
+        assertEquals(product2.getId(), page.get(0).getId());
+        assertEquals(List.of(product3), productRepository.findNextPage(product2.getId(), PageRequest.ofSize(5)));
+    }
+
+    @Test
+    void StreamAllProductDtos_returnsProductsOrderedById() {
+        productRepository.save(new Product(null, "Product 2", 2.00F, LocalDate.now()));
+        try (Stream<ProductDTO> products = productRepository.streamAllProductDtos()) {
+            assertEquals(List.of("Product 1", "Product 2"), products.map(ProductDTO::name).toList());
+        }
+    }
+
+    @Test
+    void FindProductDtosByName_projectsTheColumnsWithoutManagingEntities() {
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ProductDTO> products = productRepository.findProductDtosByName("Product 1");
+
+        assertEquals(List.of(new ProductDTO("Product 1", product.getPrice(), product.getDate())), products);
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void UpdateById_updatesTheRowAndBumpsTheVersion() {
+        int updated = productRepository.updateById(product.getId(), "Product 2", 20.00F, LocalDate.now());
+        int missing = productRepository.updateById(-1L, "Product 2", 20.00F, LocalDate.now());
+        entityManager.clear();
+
+        Product updatedProduct = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(1, updated);
+        assertEquals(0, missing);
+        assertEquals("Product 2", updatedProduct.getName());
+        assertEquals(1L, updatedProduct.getVersion());
+    }
+
+    @Test
+    void UpdateByIdAndVersion_onlyUpdatesTheExpectedVersion() {
+        int stale = productRepository.updateByIdAndVersion(product.getId(), 1L, "Stale", 30.00F, LocalDate.now());
+        int updated = productRepository.updateByIdAndVersion(product.getId(), 0L, "Product 2", 20.00F, LocalDate.now());
+        entityManager.clear();
+
+        Product updatedProduct = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(0, stale);
+        assertEquals(1, updated);
+        assertEquals("Product 2", updatedProduct.getName());
+        assertEquals(1L, updatedProduct.getVersion());
+    }
+
+    @Test
+    void FindVersionById_returnsTheValidatorsOfTheRow() {
+        entityManager.flush(); // the timestamp is generated with the INSERT
+        Instant createdAt = product.getUpdatedAt();
+        productRepository.updateById(product.getId(), "Product 2", 20.00F, LocalDate.now());
+        entityManager.clear();
+
+        ProductVersionView version = productRepository.findVersionById(product.getId()).orElseThrow();
+        assertNotNull(createdAt);
+        assertEquals(1L, version.version());
+        assertEquals(product.getId() + "-1", version.etag());
+        assertFalse(version.updatedAt().isBefore(createdAt));
+        assertFalse(productRepository.findVersionById(-1L).isPresent());
+    }
+
+    @Test
+    void FindVersionedById_readsTheBodyWithItsVersion() {
+        productRepository.updateById(product.getId(), "Product 2", 20.00F, LocalDate.now());
+        entityManager.clear();
+
+        VersionedProductView versioned = productRepository.findVersionedById(product.getId()).orElseThrow();
+        assertEquals("Product 2", versioned.toDto().name());
+        assertEquals(product.getId() + "-1", versioned.toVersionView().etag());
+        assertFalse(productRepository.findVersionedById(-1L).isPresent());
+    }
+
+    @Test
+    void FindCatalogVersion_changesWithTheCount() {
+        CatalogVersionView before = productRepository.findCatalogVersion();
+        productRepository.save(new Product(null, "Product 2", 2.00F, LocalDate.now()));
+        CatalogVersionView after = productRepository.findCatalogVersion();
+
+        assertEquals(1, before.count());
+        assertEquals(2, after.count());
+        assertNotEquals(before.etag(), after.etag());
+    }
+
+    @Test
+    void DeleteProductById_returnsTheDeletedRowCount() {
+        assertEquals(1, productRepository.deleteProductById(product.getId()));
+        assertEquals(0, productRepository.deleteProductById(product.getId()));
+        entityManager.clear();
+        assertFalse(productRepository.findById(product.getId()).isPresent());
+    }
+
 }
@@ -0,0 +1,65 @@
+package com.example.crud.repository;
+
+import com.example.crud.entity.Product;
+import io.r2dbc.spi.ConnectionFactories;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// H2 over R2DBC stands in for Postgres, the table mirrors what JPA generates for Product.
+class ReactiveProductRepositoryTest {
+
+    private final DatabaseClient databaseClient = DatabaseClient.create(
+            ConnectionFactories.get("r2dbc:h2:mem:///reactive-products;DB_CLOSE_DELAY=-1"));
+
+    private final ReactiveProductRepository reactiveProductRepository = new ReactiveProductRepository(databaseClient);
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("DROP TABLE IF EXISTS product").then()
+                .then(databaseClient.sql("CREATE TABLE product (id BIGINT PRIMARY KEY, name VARCHAR(255), price REAL, "
+                        + "date DATE, version BIGINT, updated_at TIMESTAMP(6) WITH TIME ZONE)").then())
+                .then(databaseClient.sql("INSERT INTO product VALUES (2, 'Product 2', 2.0, DATE '2024-01-02', 0, NULL), "
+                        + "(1, 'Product 1', 1.0, DATE '2024-01-01', 3, NULL)").then())
+                .block();
+    }
+
+    @Test
+    void FindAll_returnsProductsOrderedById() {
+        StepVerifier.create(reactiveProductRepository.findAll().map(Product::getName))
+                .expectNext("Product 1", "Product 2")
+                .verifyComplete();
+    }
+
+    @Test
+    void FindById_mapsEveryColumn() {
+        StepVerifier.create(reactiveProductRepository.findById(1L))
+                .assertNext(product -> {
+                    assertEquals("Product 1", product.getName());
+                    assertEquals(1.0f, product.getPrice());
+                    assertEquals(3L, product.getVersion());
+                })
+                .verifyComplete();
+        StepVerifier.create(reactiveProductRepository.findById(-1L)).verifyComplete();
+    }
+
+    @Test
+    void FindByName_returnsTheExactMatches() {
+        StepVerifier.create(reactiveProductRepository.findByName("Product 2").map(Product::getId))
+                .expectNext(2L)
+                .verifyComplete();
+    }
+
+    @Test
+    void FindAllById_skipsTheMissingIds() {
+        StepVerifier.create(reactiveProductRepository.findAllById(List.of(2L, 7L)).map(Product::getId))
+                .expectNext(2L)
+                .verifyComplete();
+        StepVerifier.create(reactiveProductRepository.findAllById(List.of())).verifyComplete();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.crud.search;
+
+import com.example.crud.dto.ProductDTO;
+import com.example.crud.event.ProductChangedEvent;
+import com.example.crud.exception.BadRequestException;
+import com.example.crud.repository.IProductRepository;
+import com.example.crud.repository.ProductNameView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProductNameIndexTest {
+
+    private IProductRepository productRepository;
+    private ProductNameIndex productNameIndex;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(IProductRepository.class);
+        productNameIndex = new ProductNameIndex(productRepository, mock(PlatformTransactionManager.class), Duration.ofMinutes(1));
+        productNameIndex.put(1L, "Café");
+        productNameIndex.put(2L, "cafetera");
+        productNameIndex.put(3L, "Té");
+        productNameIndex.put(4L, "CAFE");
+    }
+
+    @Test
+    void search_MatchesPrefixIgnoringCaseAndAccents() {
+        assertEquals(List.of(1L, 4L, 2L), productNameIndex.search("CAF", true, null, 10).ids());
+        assertEquals(List.of(3L), productNameIndex.search("te", true, null, 10).ids());
+    }
+
+    @Test
+    void search_MatchesWholeName_When_NotPrefix() {
+        assertEquals(List.of(1L, 4L), productNameIndex.search("cafe", false, null, 10).ids());
+    }
+
+    @Test
+    void search_PaginatesWithCursor() {
+        ProductNameIndex.Page first = productNameIndex.search("caf", true, null, 2);
+        ProductNameIndex.Page second = productNameIndex.search("caf", true, first.nextCursor(), 2);
+
+        assertEquals(List.of(1L, 4L), first.ids());
+        assertNotNull(first.nextCursor());
+        assertEquals(List.of(2L), second.ids());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void search_RejectsInvalidCursor() {
+        assertThrows(BadRequestException.class, () -> productNameIndex.search("caf", true, "%%%", 2));
+    }
+
+    @Test
+    void onProductChanged_ReindexesRenamedAndDeletedProducts() {
+        productNameIndex.onProductChanged(ProductChangedEvent.updated(2L, new ProductDTO("Tetera", 1.0f, LocalDate.now())));
+        productNameIndex.onProductChanged(ProductChangedEvent.deleted(1L));
+
+        assertEquals(List.of(4L), productNameIndex.search("caf", true, null, 10).ids());
+        assertEquals(List.of(3L, 2L), productNameIndex.search("te", true, null, 10).ids());
+        assertEquals(3, productNameIndex.size());
+    }
+
+    @Test
+    void load_IndexesEveryStoredProduct() {
+        when(productRepository.streamNames()).thenReturn(Stream.of(new ProductNameView(5L, "Mate")));
+
+        productNameIndex.load();
+
+        assertEquals(List.of(5L), productNameIndex.search("ma", true, null, 10).ids());
+    }
+
+    @Test
+    void load_AppliesTheChangesCommittedWhileLoadingAfterTheSnapshot() {
+        // The snapshot still holds 5 as Mate and 6, both changed while it is being read.
+        when(productRepository.streamNames()).thenReturn(Stream.of(new ProductNameView(5L, "Mate"), new ProductNameView(6L, "Yerba"))
+                .peek(view -> {
+                    if (view.id() == 5L) {
+                        productNameIndex.onProductChanged(ProductChangedEvent.updated(5L, new ProductDTO("Bombilla", 1.0f, LocalDate.now())));
+                        productNameIndex.onProductChanged(ProductChangedEvent.deleted(6L));
+                    }
+                }));
+
+        productNameIndex.load();
+
+        assertEquals(List.of(5L), productNameIndex.search("bomb", true, null, 10).ids());
+        assertEquals(List.of(), productNameIndex.search("ma", true, null, 10).ids());
+        assertEquals(List.of(), productNameIndex.search("yerba", true, null, 10).ids());
+    }
+
+    @Test
+    void sync_PicksUpNamesWrittenThroughOtherNodes() {
+        when(productRepository.streamNames()).thenReturn(Stream.of(new ProductNameView(5L, "Mate")));
+        productNameIndex.load();
+        when(productRepository.findNamesUpdatedSince(any(Instant.class))).thenReturn(List.of(new ProductNameView(5L, "Bombilla")));
+
+        productNameIndex.sync();
+
+        assertEquals(List.of(5L), productNameIndex.search("bomb", true, null, 10).ids());
+        assertEquals(List.of(), productNameIndex.search("ma", true, null, 10).ids());
+    }
+
+    @Test
+    void sync_DoesNothing_When_NotLoadedYet() {
+        productNameIndex.sync();
+
+        verify(productRepository, never()).findNamesUpdatedSince(any());
+    }
+
+    @Test
+    void rebuild_DropsProductsDeletedThroughOtherNodes() {
+        when(productRepository.streamNames()).thenReturn(Stream.of(new ProductNameView(1L, "Café"), new ProductNameView(3L, "Té")));
+
+        productNameIndex.rebuild();
+
+        assertEquals(List.of(1L), productNameIndex.search("caf", true, null, 10).ids());
+        assertEquals(2, productNameIndex.size());
+    }
+}
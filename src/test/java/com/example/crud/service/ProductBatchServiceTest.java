@@ -0,0 +1,156 @@
+package com.example.crud.service;
+
+import com.example.crud.config.CacheConfig;
+import com.example.crud.dto.ProductDTO;
+import com.example.crud.dto.ProductUpdateDTO;
+import com.example.crud.entity.Product;
+import com.example.crud.event.ProductChangedEvent;
+import com.example.crud.exception.BadRequestException;
+import com.example.crud.exception.PartialBatchException;
+import com.example.crud.mapper.imp.ProductMapper;
+import com.example.crud.repository.IProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductBatchServiceTest {
+
+    private IProductRepository productRepository;
+    private EntityManager entityManager;
+    private ApplicationEventPublisher eventPublisher;
+    private CacheManager cacheManager;
+    private ProductBatchService productBatchService;
+
+    @BeforeEach
+    public void setUp() {
+        productRepository = mock(IProductRepository.class);
+        entityManager = mock(EntityManager.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        cacheManager = new ConcurrentMapCacheManager(CacheConfig.PRODUCTS_BY_ID, CacheConfig.PRODUCTS_BY_NAME);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        // Chunks of 2 so every test crosses a chunk boundary
+        productBatchService = new ProductBatchService(productRepository, new ProductMapper(), transactionTemplate, entityManager, eventPublisher, cacheManager, 2);
+    }
+
+    @Test
+    void createProducts_SavesEveryChunkAndClearsThePersistenceContext() {
+        ProductDTO productDTO = new ProductDTO("Product", 1.0f, LocalDate.now());
+
+        List<Integer> statuses = productBatchService.createProducts(Arrays.asList(productDTO, null, productDTO).iterator());
+
+        assertEquals(List.of(201, 400, 201), statuses);
+        verify(productRepository, times(2)).saveAll(anyList());
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void createProducts_MarksTheWholeChunkAsFailed_When_WriteFails() {
+        ProductDTO productDTO = new ProductDTO("Product", 1.0f, LocalDate.now());
+        when(productRepository.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("boom"))
+                .thenReturn(List.of());
+
+        List<Integer> statuses = productBatchService.createProducts(List.of(productDTO, productDTO, productDTO).iterator());
+
+        assertEquals(List.of(500, 500, 201), statuses);
+    }
+
+    @Test
+    void createProducts_MalformedElement_WritesWhatWasReadBeforeIt() {
+        ProductDTO productDTO = new ProductDTO("Product", 1.0f, LocalDate.now());
+        Iterator<ProductDTO> body = new Iterator<>() {
+            private int read;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public ProductDTO next() {
+                if (read == 3)
+                    throw new BadRequestException("Malformed JSON at element 3");
+                read++;
+                return productDTO;
+            }
+        };
+
+        PartialBatchException e = assertThrows(PartialBatchException.class, () -> productBatchService.createProducts(body));
+
+        assertEquals(List.of(201, 201, 201), e.getStatuses());
+        assertEquals("Malformed JSON at element 3", e.getMessage());
+        verify(productRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    void deleteProducts_ClearsTheCaches_When_TheBodyFailsAfterAChunkCommitted() {
+        cacheManager.getCache(CacheConfig.PRODUCTS_BY_ID).put(1L, new ProductDTO("Product", 1.0f, LocalDate.now()));
+        cacheManager.getCache(CacheConfig.PRODUCTS_BY_NAME).put("Product", List.of());
+        when(productRepository.findExistingIds(Set.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        Iterator<Long> ids = List.of(1L, 2L).iterator();
+        Iterator<Long> body = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Long next() {
+                if (!ids.hasNext())
+                    throw new BadRequestException("Malformed JSON at element 2");
+                return ids.next();
+            }
+        };
+
+        assertThrows(PartialBatchException.class, () -> productBatchService.deleteProducts(body));
+
+        assertNull(cacheManager.getCache(CacheConfig.PRODUCTS_BY_ID).get(1L));
+        assertNull(cacheManager.getCache(CacheConfig.PRODUCTS_BY_NAME).get("Product"));
+    }
+
+    @Test
+    void updateProducts_UpdatesFoundProductsAndReportsMissingOnes() {
+        Product product = new Product(1L, "Product", 1.0f, LocalDate.now());
+        when(productRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(product));
+
+        List<Integer> statuses = productBatchService.updateProducts(List.of(
+                new ProductUpdateDTO(1L, "Updated", 2.0f, LocalDate.now()),
+                new ProductUpdateDTO(2L, "Missing", 2.0f, LocalDate.now()),
+                new ProductUpdateDTO(null, "No id", 2.0f, LocalDate.now())).iterator());
+
+        assertEquals(List.of(200, 404, 400), statuses);
+        verify(eventPublisher).publishEvent(ProductChangedEvent.updated(1L, new ProductDTO("Updated", 2.0f, product.getDate())));
+        assertEquals("Updated", product.getName());
+        assertEquals(2.0f, product.getPrice());
+    }
+
+    @Test
+    void deleteProducts_DeletesExistingIdsInOneStatement() {
+        when(productRepository.findExistingIds(Set.of(1L, 2L))).thenReturn(List.of(1L));
+        when(productRepository.findExistingIds(Set.of(3L))).thenReturn(List.of(3L));
+
+        List<Integer> statuses = productBatchService.deleteProducts(List.of(1L, 2L, 3L).iterator());
+
+        assertEquals(List.of(204, 404, 204), statuses);
+        verify(eventPublisher).publishEvent(ProductChangedEvent.deleted(1L));
+        verify(eventPublisher).publishEvent(ProductChangedEvent.deleted(3L));
+        verify(productRepository).deleteAllByIdInBatch(Set.of(1L));
+        verify(productRepository).deleteAllByIdInBatch(Set.of(3L));
+    }
+}
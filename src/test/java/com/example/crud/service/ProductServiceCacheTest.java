@@ -0,0 +1,234 @@
+package com.example.crud.service;
+
+import com.example.crud.config.CacheConfig;
+import com.example.crud.dto.ProductDTO;
+import com.example.crud.dto.ProductLookupDTO;
+import com.example.crud.entity.Product;
+import com.example.crud.mapper.imp.ProductMapper;
+import com.example.crud.repository.IProductRepository;
+import com.example.crud.repository.ProductRowView;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// Checks the caching of ProductService through a real Spring context, writes evict through its event listener.
+@SpringJUnitConfig
+class ProductServiceCacheTest {
+
+    @Configuration
+    @EnableAspectJAutoProxy(proxyTargetClass = true) // class proxies, as Spring Boot creates them
+    @Import({CacheConfig.class, ProductService.class, ProductMapper.class})
+    static class Config {
+        @Bean
+        IProductRepository productRepository() {
+            return mock(IProductRepository.class);
+        }
+
+        @Bean
+        EntityManagerFactory entityManagerFactory() {
+            return mock(EntityManagerFactory.class);
+        }
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(CacheConfig.PRODUCTS_BY_ID, CacheConfig.PRODUCTS_BY_NAME);
+        }
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private IProductRepository productRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final Product product = new Product(1L, "Product 1", 10.0f, LocalDate.now());
+
+    @BeforeEach
+    void setUp() {
+        reset(productRepository);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void getProductById_HitsTheDatabaseOnlyOnce() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        productService.getProductById(1L);
+        Optional<ProductDTO> cached = productService.getProductById(1L);
+
+        assertTrue(cached.isPresent());
+        assertEquals("Product 1", cached.get().name());
+        verify(productRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void getProductById_DoesNotCacheMisses() {
+        when(productRepository.findById(2L)).thenReturn(Optional.empty());
+
+        productService.getProductById(2L);
+        productService.getProductById(2L);
+
+        verify(productRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    void updateProduct_EvictsTheCachedProduct() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product))
+                .thenReturn(Optional.of(new Product(1L, "Updated", 20.0f, LocalDate.now())));
+        when(productRepository.updateById(eq(1L), anyString(), anyFloat(), any())).thenReturn(1);
+        productService.getProductById(1L);
+
+        productService.updateProduct(1L, new ProductDTO("Updated", 20.0f, LocalDate.now()));
+
+        assertEquals("Updated", productService.getProductById(1L).orElseThrow().name());
+        verify(productRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void getProductById_DoesNotCacheWhatItReadBeforeAnUpdateCommitted() throws Exception {
+        CountDownLatch read = new CountDownLatch(1);
+        CountDownLatch updated = new CountDownLatch(1);
+        when(productRepository.findById(1L)).thenAnswer(invocation -> {
+            read.countDown();
+            updated.await(5, TimeUnit.SECONDS); // the row was read, the update commits before it is cached
+            return Optional.of(product);
+        }).thenReturn(Optional.of(new Product(1L, "Updated", 20.0f, LocalDate.now())));
+        when(productRepository.updateById(eq(1L), anyString(), anyFloat(), any())).thenReturn(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Optional<ProductDTO>> slowRead = executor.submit(() -> productService.getProductById(1L));
+            assertTrue(read.await(5, TimeUnit.SECONDS));
+            productService.updateProduct(1L, new ProductDTO("Updated", 20.0f, LocalDate.now()));
+            updated.countDown();
+
+            assertEquals("Product 1", slowRead.get(5, TimeUnit.SECONDS).orElseThrow().name());
+            assertNull(cacheManager.getCache(CacheConfig.PRODUCTS_BY_ID).get(1L));
+            assertEquals("Updated", productService.getProductById(1L).orElseThrow().name());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getProductById_DoesNotCacheACoalescedLoadThatAnUpdateOvertook() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        productService.bindTo(registry);
+        FunctionCounter joined = registry.get("singleflight.calls").tag("name", CacheConfig.PRODUCTS_BY_ID)
+                .tag("outcome", "coalesced").functionCounter();
+        CountDownLatch read = new CountDownLatch(1);
+        CountDownLatch updated = new CountDownLatch(1);
+        when(productRepository.findById(1L)).thenAnswer(invocation -> {
+            read.countDown();
+            updated.await(5, TimeUnit.SECONDS);
+            return Optional.of(product);
+        }).thenReturn(Optional.of(new Product(1L, "Updated", 20.0f, LocalDate.now())));
+        when(productRepository.updateById(eq(1L), anyString(), anyFloat(), any())).thenReturn(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Optional<ProductDTO>> leader = executor.submit(() -> productService.getProductById(1L));
+            assertTrue(read.await(5, TimeUnit.SECONDS));
+            Future<Optional<ProductDTO>> follower = executor.submit(() -> productService.getProductById(1L));
+            for (int i = 0; i < 5000 && joined.count() < 1; i++)
+                Thread.sleep(1);
+            assertEquals(1, joined.count());
+
+            productService.updateProduct(1L, new ProductDTO("Updated", 20.0f, LocalDate.now()));
+            // Started after the commit, so it runs its own query instead of waiting for the stale one.
+            assertEquals("Updated", productService.getProductById(1L).orElseThrow().name());
+            updated.countDown();
+
+            assertEquals("Product 1", leader.get(5, TimeUnit.SECONDS).orElseThrow().name());
+            assertEquals("Product 1", follower.get(5, TimeUnit.SECONDS).orElseThrow().name());
+            assertEquals("Updated", cacheManager.getCache(CacheConfig.PRODUCTS_BY_ID).get(1L, ProductDTO.class).name());
+            verify(productRepository, times(2)).findById(1L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void createProduct_EvictsOnlyTheNameLookupOfTheNewProduct() {
+        when(productRepository.findProductDtosByName(anyString())).thenReturn(List.of(new ProductDTO("Product 1", 10.0f, LocalDate.now())));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+        productService.getProductsByName("Product 1");
+        productService.getProductsByName("Other");
+
+        productService.createProduct(new ProductDTO("Product 1", 10.0f, LocalDate.now()));
+        productService.getProductsByName("Product 1");
+        productService.getProductsByName("Other");
+
+        verify(productRepository, times(2)).findProductDtosByName("Product 1");
+        verify(productRepository, times(1)).findProductDtosByName("Other");
+    }
+
+    @Test
+    void deleteProduct_EvictsTheProduct() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.deleteProductById(1L)).thenReturn(1);
+        productService.getProductById(1L);
+
+        productService.deleteProduct(1L);
+        productService.getProductById(1L);
+
+        verify(productRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void getProductsByIds_QueriesOnlyTheCacheMissesAndCachesThem() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.findRowsByIdIn(List.of(2L, 3L)))
+                .thenReturn(List.of(new ProductRowView(2L, "Product 2", 20.0f, LocalDate.now(), null)));
+        productService.getProductById(1L);
+
+        ProductLookupDTO lookup = productService.getProductsByIds(List.of(1L, 2L, 3L));
+        productService.getProductById(2L);
+
+        assertEquals(List.of(1L, 2L), List.copyOf(lookup.products().keySet()));
+        assertEquals(List.of(3L), lookup.missing());
+        verify(productRepository).findRowsByIdIn(List.of(2L, 3L));
+        verify(productRepository, never()).findById(2L);
+    }
+
+    @Test
+    void getProductsByIds_DoesNotCacheRowsAnUpdateOvertook() {
+        when(productRepository.updateById(eq(1L), anyString(), anyFloat(), any())).thenReturn(1);
+        when(productRepository.findRowsByIdIn(List.of(1L, 2L))).thenAnswer(invocation -> {
+            List<ProductRowView> rows = List.of(new ProductRowView(1L, "Product 1", 10.0f, LocalDate.now(), null),
+                    new ProductRowView(2L, "Product 2", 20.0f, LocalDate.now(), null));
+            productService.updateProduct(1L, new ProductDTO("Updated", 20.0f, LocalDate.now())); // commits after the read
+            return rows;
+        });
+
+        productService.getProductsByIds(List.of(1L, 2L));
+
+        assertNull(cacheManager.getCache(CacheConfig.PRODUCTS_BY_ID).get(1L));
+        assertNotNull(cacheManager.getCache(CacheConfig.PRODUCTS_BY_ID).get(2L));
+    }
+}
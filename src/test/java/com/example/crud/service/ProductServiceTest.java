@@ -1,10 +1,21 @@
 package com.example.crud.service;
 
 import com.example.crud.dto.ProductDTO;
+import com.example.crud.dto.ProductLookupDTO;
+import com.example.crud.dto.ProductPageDTO;
+import com.example.crud.exception.BadRequestException;
+import com.example.crud.exception.PreconditionFailedException;
 import com.example.crud.exception.ResourceNotFoundException;
 import com.example.crud.mapper.imp.ProductMapper;
 import com.example.crud.entity.Product;
+import com.example.crud.event.ProductChangedEvent;
+import com.example.crud.repository.CatalogVersionView;
 import com.example.crud.repository.IProductRepository;
+import com.example.crud.repository.ProductFilter;
+import com.example.crud.repository.ProductKeyset;
+import com.example.crud.repository.ProductRowView;
+import com.example.crud.repository.ProductSort;
+import com.example.crud.util.IdCursor;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,11 +23,23 @@ import org.junit.jupiter.api.function.Executable;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -30,6 +53,12 @@ class ProductServiceTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CacheManager cacheManager; // no caches, every lookup goes to the repository
+
     @InjectMocks
     private ProductService productService;
 
@@ -47,17 +76,29 @@ class ProductServiceTest {
 
     @Test
     void getAllProducts_Returns3Products() {
-        Product product1 = new Product(1L, "Product 1", 10.0f, LocalDate.now());
-        Product product2 = new Product(2L, "Product 2", 15.0f, LocalDate.now());
-        Product product3 = new Product(3L, "Product 3", 20.0f, LocalDate.now());
-        List<Product> products = Arrays.asList(product1, product2, product3);
-        when(productRepository.findAll()).thenReturn(products); //When X is called, then return Y
+        ProductDTO product1 = new ProductDTO("Product 1", 10.0f, LocalDate.now());
+        ProductDTO product2 = new ProductDTO("Product 2", 15.0f, LocalDate.now());
+        ProductDTO product3 = new ProductDTO("Product 3", 20.0f, LocalDate.now());
+        List<ProductDTO> products = Arrays.asList(product1, product2, product3);
+        when(productRepository.findAllProductDtos()).thenReturn(products); //When X is called, then return Y
 
-        List<ProductDTO> productDTOs = productService.getAllProducts();
+        List<ProductDTO> productDTOs = productService.getAllProducts(catalogVersion -> false).orElseThrow();
 
         assertEquals(3, productDTOs.size());
-        verify(productRepository).findAll();
+        verify(productRepository).findAllProductDtos();
+        verifyNoInteractions(productMapper);
+
+    }
+
+    @Test
+    void getAllProducts_DoesNotLoadTheList_When_NotModified() {
+        CatalogVersionView catalogVersion = new CatalogVersionView(3, Instant.EPOCH);
+        when(productRepository.findCatalogVersion()).thenReturn(catalogVersion);
+
+        Optional<List<ProductDTO>> productDTOs = productService.getAllProducts(version -> version.equals(Optional.of(catalogVersion)));
 
+        assertTrue(productDTOs.isEmpty());
+        verify(productRepository, never()).findAllProductDtos();
     }
 
     @Test
@@ -71,11 +112,74 @@ class ProductServiceTest {
         Optional<ProductDTO> result = productService.getProductById(1L);
 
         assertTrue(result.isPresent(), "The Optional contains a ProductDTO");
-        assertEquals("Product 1", result.get().getName());
+        assertEquals("Product 1", result.get().name());
         verify(productRepository).findById(1L); //Verifies method was called once.
         verify(productMapper).toDto(product);
     }
 
+    @Test
+    void getProductsByName_ConcurrentMissesShareOneQuery() throws Exception {
+        ProductDTO productDTO = new ProductDTO("Product 1", 10.0f, LocalDate.now());
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productRepository.findProductDtosByName("Product 1")).thenAnswer(invocation -> {
+            queryStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(productDTO);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        try {
+            List<Future<List<ProductDTO>>> results = new ArrayList<>();
+            results.add(executor.submit(() -> productService.getProductsByName("Product 1")));
+            assertTrue(queryStarted.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 9; i++)
+                results.add(executor.submit(() -> productService.getProductsByName("Product 1")));
+            Thread.sleep(50);
+            release.countDown();
+
+            for (Future<List<ProductDTO>> result : results)
+                assertEquals(List.of(productDTO), result.get(5, TimeUnit.SECONDS));
+            verify(productRepository, times(1)).findProductDtosByName("Product 1");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getProductsByIds_KeepsTheRequestedOrderAndReportsMissingIds() {
+        when(productRepository.findRowsByIdIn(List.of(3L, 1L, 2L))).thenReturn(List.of(
+                new ProductRowView(1L, "Product 1", 10.0f, LocalDate.now(), null),
+                new ProductRowView(3L, "Product 3", 30.0f, LocalDate.now(), null)));
+
+        ProductLookupDTO lookup = productService.getProductsByIds(List.of(3L, 1L, 3L, 2L));
+
+        assertEquals(List.of(3L, 1L), List.copyOf(lookup.products().keySet()));
+        assertEquals("Product 3", lookup.products().get(3L).name());
+        assertEquals(List.of(2L), lookup.missing());
+    }
+
+    @Test
+    void getProductsByIds_QueriesInChunks() {
+        List<Long> ids = LongStream.rangeClosed(1, ProductService.LOOKUP_CHUNK_SIZE + 1).boxed().toList();
+        when(productRepository.findRowsByIdIn(anyList())).thenReturn(List.of());
+
+        ProductLookupDTO lookup = productService.getProductsByIds(ids);
+
+        assertEquals(ids, lookup.missing());
+        verify(productRepository).findRowsByIdIn(ids.subList(0, ProductService.LOOKUP_CHUNK_SIZE));
+        verify(productRepository).findRowsByIdIn(List.of(ProductService.LOOKUP_CHUNK_SIZE + 1L));
+    }
+
+    @Test
+    void getProductsByIds_RejectsNullsAndTooManyIds() {
+        List<Long> tooMany = LongStream.rangeClosed(1, ProductService.MAX_LOOKUP_IDS + 1).boxed().toList();
+
+        assertThrows(BadRequestException.class, () -> productService.getProductsByIds(Arrays.asList(1L, null)));
+        assertThrows(BadRequestException.class, () -> productService.getProductsByIds(tooMany));
+        verifyNoInteractions(productRepository);
+    }
+
     @Test
     void createProduct_ReturnsProduct1DTO() {
         Product product = new Product(1L, "Product 1", 10.0f, LocalDate.now());
@@ -87,16 +191,68 @@ class ProductServiceTest {
 
         ProductDTO createdProduct = productService.createProduct(productDTO);
 
-        assertEquals(productDTO.getName(), createdProduct.getName());
+        assertEquals(productDTO.name(), createdProduct.name());
         verify(productRepository).save(any(Product.class));
         verify(productMapper).toEntity(any(ProductDTO.class));
         verify(productMapper).toDto(any(Product.class));
+        verify(eventPublisher).publishEvent(ProductChangedEvent.created(1L, productDTO));
     }
 
     @Test
     void updateProduct_NotFound() {
         ProductDTO productDetails = new ProductDTO("Updated Product", 20.0f, LocalDate.now());
 
+        when(productRepository.updateById(eq(1L), anyString(), anyFloat(), any())).thenReturn(0);
+        Executable executable = () -> productService.updateProduct(1L, productDetails);
+
+        assertThrows(ResourceNotFoundException.class, executable);
+        verify(productRepository, times(0)).findById(anyLong());
+    }
+
+    @Test
+    void updateProduct_ShouldRunASingleUpdate_When_ProductExists() {
+        ProductDTO productDtoDetails = new ProductDTO("Updated Product", 30.0f, LocalDate.now());
+        when(productRepository.updateById(1L, "Updated Product", 30.0f, productDtoDetails.date())).thenReturn(1);
+
+        ProductDTO result = productService.updateProduct(1L, productDtoDetails);
+
+        assertEquals(productDtoDetails, result);
+        verify(productRepository).updateById(1L, "Updated Product", 30.0f, productDtoDetails.date());
+        verify(productRepository, times(0)).findById(anyLong());
+        verify(productRepository, times(0)).save(any(Product.class));
+        verify(eventPublisher).publishEvent(ProductChangedEvent.updated(1L, result));
+    }
+
+    @Test
+    void updateProduct_WithExpectedVersion_UpdatesOnlyThatVersion() {
+        ProductDTO productDtoDetails = new ProductDTO("Updated Product", 30.0f, LocalDate.now());
+        when(productRepository.updateByIdAndVersion(1L, 3L, "Updated Product", 30.0f, productDtoDetails.date())).thenReturn(1);
+
+        ProductDTO result = productService.updateProduct(1L, productDtoDetails, 3L);
+
+        assertEquals(productDtoDetails, result);
+        verify(productRepository, times(0)).updateById(anyLong(), anyString(), anyFloat(), any());
+        verify(eventPublisher).publishEvent(ProductChangedEvent.updated(1L, result));
+    }
+
+    @Test
+    void updateProduct_WithStaleVersion_FailsThePrecondition() {
+        ProductDTO productDtoDetails = new ProductDTO("Updated Product", 30.0f, LocalDate.now());
+        when(productRepository.updateByIdAndVersion(eq(1L), eq(3L), anyString(), anyFloat(), any())).thenReturn(0);
+        when(productRepository.existsById(1L)).thenReturn(true);
+        when(productRepository.updateByIdAndVersion(eq(2L), eq(3L), anyString(), anyFloat(), any())).thenReturn(0);
+        when(productRepository.existsById(2L)).thenReturn(false);
+
+        assertThrows(PreconditionFailedException.class, () -> productService.updateProduct(1L, productDtoDetails, 3L));
+        assertThrows(ResourceNotFoundException.class, () -> productService.updateProduct(2L, productDtoDetails, 3L));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void updateProduct_NotFound_WithOptimisticLocking() {
+        ReflectionTestUtils.setField(productService, "optimisticLocking", true);
+        ProductDTO productDetails = new ProductDTO("Updated Product", 20.0f, LocalDate.now());
+
         when(productRepository.findById(1L)).thenReturn(Optional.empty());
         Executable executable = () -> productService.updateProduct(1L, productDetails);
 
@@ -107,6 +263,7 @@ class ProductServiceTest {
 
     @Test
     void updateProduct_ShouldUpdateProduct_When_ProductExists() {
+        ReflectionTestUtils.setField(productService, "optimisticLocking", true);
         Product product = new Product(1L,"Product", 20.0f, LocalDate.now());
         ProductDTO productDtoDetails = new ProductDTO("Updated Product", 30.0f, LocalDate.now());
         Product updatedProduct = new Product(1L,"Updated Product", 30.0f, LocalDate.now());
@@ -119,19 +276,41 @@ class ProductServiceTest {
         //Save DTO to compare with assertEquals
         ProductDTO result = productService.updateProduct(1L, productDtoDetails);
 
-        assertEquals(productDtoDetails.getName(),result.getName());
-        assertEquals(productDtoDetails.getPrice(),result.getPrice());
+        assertEquals(productDtoDetails.name(),result.name());
+        assertEquals(productDtoDetails.price(),result.price());
         verify(productRepository).findById(1L);
         // When verifying mock interactions, use argument matchers.
         verify(productRepository).save(argThat(savedProduct ->
-                savedProduct.getName().equals(productDtoDetails.getName()) &&
-                        savedProduct.getPrice() == productDtoDetails.getPrice())
+                savedProduct.getName().equals(productDtoDetails.name()) &&
+                        savedProduct.getPrice() == productDtoDetails.price())
         );
     }
     //Edge cases: Updating a product with invalid data.
 
+    @Test
+    void deleteProduct_shouldThrowException_When_NoRowIsDeleted(){
+        when(productRepository.deleteProductById(1L)).thenReturn(0);
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> productService.deleteProduct(1L));
+        assertEquals("Product not found", exception.getMessage());
+        verify(productRepository, times(0)).findById(anyLong());
+    }
+
+    @Test
+    void deleteProduct_shouldRunASingleDelete_When_IdFound(){
+        when(productRepository.deleteProductById(1L)).thenReturn(1);
+
+        productService.deleteProduct(1L);
+
+        verify(productRepository).deleteProductById(1L);
+        verify(productRepository, times(0)).findById(anyLong());
+        verify(productRepository, times(0)).delete(any(Product.class));
+        verify(eventPublisher).publishEvent(ProductChangedEvent.deleted(1L));
+    }
+
     @Test
     void deleteProduct_shouldThrowException_When_IdNotFound(){
+        ReflectionTestUtils.setField(productService, "optimisticLocking", true);
         when(productRepository.findById(1L)).thenReturn(Optional.empty());
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> productService.deleteProduct(1L));
@@ -143,6 +322,7 @@ class ProductServiceTest {
 
     @Test
     void deleteProduct_shouldReturnNothing_When_IdFound(){
+        ReflectionTestUtils.setField(productService, "optimisticLocking", true);
         Product product = new Product(1L,"Product 1", 1.00F, LocalDate.now());
 
         when(productRepository.findById(1L)).thenReturn(Optional.of(product));
@@ -153,4 +333,71 @@ class ProductServiceTest {
         verify(productRepository).delete(any(Product.class));
     }
 
-}
\ No newline at end of file
+    @Test
+    void getProductsPage_ReturnsNextCursor_When_MoreProductsExist() {
+        Product product1 = new Product(1L, "Product 1", 10.0f, LocalDate.now());
+        Product product2 = new Product(2L, "Product 2", 15.0f, LocalDate.now());
+        Product product3 = new Product(3L, "Product 3", 20.0f, LocalDate.now());
+        when(productRepository.findNextPage(eq(Long.MIN_VALUE), any(Pageable.class)))
+                .thenReturn(Arrays.asList(product1, product2, product3));
+        when(productMapper.toDtos(anyList())).thenAnswer(invocation -> {
+            List<Product> page = invocation.getArgument(0);
+            return page.stream().map(p -> new ProductDTO(p.getName(), p.getPrice(), p.getDate())).toList();
+        });
+
+        ProductPageDTO page = productService.getProductsPage(null, 2);
+
+        assertEquals(2, page.products().size());
+        assertNotNull(page.nextCursor());
+        assertEquals(2L, IdCursor.decode(page.nextCursor()));
+        verify(productRepository).findNextPage(eq(Long.MIN_VALUE), argThat(pageable -> pageable.getPageSize() == 3));
+    }
+
+    @Test
+    void getProductsPage_ReturnsNoCursor_When_LastPage() {
+        Product product = new Product(5L, "Product 5", 10.0f, LocalDate.now());
+        when(productRepository.findNextPage(eq(4L), any(Pageable.class))).thenReturn(List.of(product));
+
+        ProductPageDTO page = productService.getProductsPage(IdCursor.encode(4L), 10);
+
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getProductsPage_CapsPageSize() {
+        productService.getProductsPage(null, 10_000);
+
+        verify(productRepository).findNextPage(eq(Long.MIN_VALUE),
+                argThat(pageable -> pageable.getPageSize() == KeysetPages.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void getFilteredPage_ReturnsKeysetCursor_When_MoreProductsExist() {
+        List<ProductRowView> rows = List.of(
+                new ProductRowView(7L, "Product 7", 20f, LocalDate.now(), null),
+                new ProductRowView(3L, "Product 3", 15f, LocalDate.now(), null),
+                new ProductRowView(9L, "Product 9", 15f, LocalDate.now(), null));
+        when(productRepository.findPage(any(), eq(ProductSort.PRICE), eq(true), eq(3))).thenReturn(rows);
+
+        ProductPageDTO page = productService.getFilteredPage(ProductFilter.NONE, ProductSort.PRICE, true, null, 2);
+
+        assertEquals(List.of("Product 7", "Product 3"), page.products().stream().map(ProductDTO::name).toList());
+        assertEquals(new ProductKeyset(ProductSort.PRICE, true, 15f, 3L), ProductKeyset.decode(page.nextCursor(), ProductSort.PRICE, true));
+    }
+
+    @Test
+    void getFilteredPage_shouldThrowException_When_RangeIsInverted() {
+        assertThrows(BadRequestException.class, () -> productService.getFilteredPage(
+                new ProductFilter(10f, 5f, null, null, null), ProductSort.ID, false, null, 10));
+        assertThrows(BadRequestException.class, () -> productService.getFilteredPage(
+                new ProductFilter(null, null, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1), null), ProductSort.ID, false, null, 10));
+        verify(productRepository, never()).findPage(any(), any(), anyBoolean(), anyInt());
+    }
+
+    @Test
+    void getProductsPage_shouldThrowException_When_CursorIsInvalid() {
+        assertThrows(BadRequestException.class, () -> productService.getProductsPage("not-a-cursor", 10));
+        verify(productRepository, times(0)).findNextPage(anyLong(), any(Pageable.class));
+    }
+
+}
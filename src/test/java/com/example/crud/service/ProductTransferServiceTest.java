@@ -0,0 +1,161 @@
+package com.example.crud.service;
+
+import com.example.crud.config.CacheConfig;
+import com.example.crud.dto.ProductImportReportDTO;
+import com.example.crud.dto.ProductImportReportDTO.RejectedRow;
+import com.example.crud.entity.Product;
+import com.example.crud.exception.BadRequestException;
+import com.example.crud.mapper.imp.ProductMapper;
+import com.example.crud.repository.IProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Export and import against H2, each import chunk commits on its own.
+@DataJpaTest(properties = {"products.batch.chunk-size=2", "products.import.max-reported-rejections=3"})
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ProductTransferService.class, ProductBatchService.class, ProductMapper.class})
+class ProductTransferServiceTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        ObjectMapper objectMapper() {
+            return Jackson2ObjectMapperBuilder.json().build(); // unknown properties ignored, as in the application
+        }
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(CacheConfig.PRODUCTS_BY_ID, CacheConfig.PRODUCTS_BY_NAME);
+        }
+    }
+
+    @Autowired
+    private ProductTransferService productTransferService;
+
+    @Autowired
+    private IProductRepository productRepository;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllInBatch();
+    }
+
+    private ProductImportReportDTO importCsv(String csv) throws IOException {
+        return productTransferService.importProducts(ProductFileFormat.CSV, new StringReader(csv));
+    }
+
+    private List<String> names() {
+        return productRepository.findAll().stream().sorted(Comparator.comparing(Product::getId)).map(Product::getName).toList();
+    }
+
+    @Test
+    void importProducts_CreatesValidRowsAndReportsTheOthersByLine() throws IOException {
+        ProductImportReportDTO report = importCsv("""
+                price,name,date,extra
+                1.5,Plain,2024-01-02,x
+                2,"Comma, ""quoted""
+                and a line break",,x
+
+                abc,Bad price,2024-01-02,x
+                3,Too few
+                4,Bad date,02/01/2024,x
+                5,Last,,x
+                """);
+
+        assertEquals(3, report.accepted());
+        assertEquals(3, report.rejected());
+        assertEquals(List.of(new RejectedRow(6, "price is not a number"), new RejectedRow(7, "Expected 4 fields, found 2"),
+                new RejectedRow(8, "date is not yyyy-MM-dd")), report.rejectedRows());
+        assertEquals(List.of("Plain", "Comma, \"quoted\"\nand a line break", "Last"), names());
+    }
+
+    @Test
+    void importProducts_KeepsOnlyTheFirstRejectedRows() throws IOException {
+        ProductImportReportDTO report = importCsv("name,price\na,x\nb,x\nc,x\nd,x\ne,1\n");
+
+        assertEquals(1, report.accepted());
+        assertEquals(4, report.rejected());
+        assertEquals(List.of(2L, 3L, 4L), report.rejectedRows().stream().map(RejectedRow::line).toList());
+    }
+
+    @Test
+    void importProducts_WithoutPriceColumn_FailsBeforeWriting() {
+        assertThrows(BadRequestException.class, () -> importCsv("name,date\na,2024-01-01\n"));
+        assertEquals(0, productRepository.count());
+    }
+
+    @Test
+    void importProducts_ReadsNdjsonLineByLine() throws IOException {
+        ProductImportReportDTO report = productTransferService.importProducts(ProductFileFormat.NDJSON, new StringReader("""
+                {"id":99,"name":"One","price":1.0,"date":"2024-01-01"}
+                {"name":"Broken",
+                null
+
+                {"name":"Two","price":2.0}
+                """));
+
+        assertEquals(2, report.accepted());
+        assertEquals(List.of(new RejectedRow(2, "Malformed JSON"), new RejectedRow(3, "Not a product")), report.rejectedRows());
+        assertEquals(List.of("One", "Two"), names());
+    }
+
+    @Test
+    void exportProducts_RoundTripsThroughImport() throws IOException {
+        productRepository.saveAll(List.of(new Product("Plain", 1.5f, LocalDate.of(2024, 1, 2)),
+                new Product("Comma, \"quoted\"\nand a line break", 2f, null), new Product("", 3f, null)));
+        List<Product> exported = productRepository.findAll();
+
+        for (ProductFileFormat format : ProductFileFormat.values()) {
+            StringWriter file = new StringWriter();
+            assertEquals(3, productTransferService.exportProducts(format, file));
+
+            productRepository.deleteAllInBatch();
+            ProductImportReportDTO report = productTransferService.importProducts(format, new StringReader(file.toString()));
+
+            assertEquals(3, report.accepted(), format + ":\n" + file);
+            List<Product> imported = productRepository.findAll();
+            for (int i = 0; i < 3; i++) {
+                assertEquals(exported.get(i).getName(), imported.get(i).getName());
+                assertEquals(exported.get(i).getPrice(), imported.get(i).getPrice());
+                assertEquals(exported.get(i).getDate(), imported.get(i).getDate());
+            }
+            exported = imported;
+        }
+    }
+
+    @Test
+    void exportProducts_WritesCsvHeaderAndOneRecordPerProduct() throws IOException {
+        Product product = productRepository.save(new Product("A", 1.5f, LocalDate.of(2024, 1, 2)));
+        StringWriter file = new StringWriter();
+
+        productTransferService.exportProducts(ProductFileFormat.CSV, file);
+
+        String[] lines = file.toString().split("\n");
+        assertEquals("id,name,price,date,updated_at", lines[0]);
+        assertTrue(lines[1].startsWith(product.getId() + ",A,1.5,2024-01-02,"), lines[1]);
+        assertEquals(2, lines.length);
+    }
+}
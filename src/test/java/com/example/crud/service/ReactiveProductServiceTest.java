@@ -0,0 +1,115 @@
+package com.example.crud.service;
+
+import com.example.crud.dto.ProductDTO;
+import com.example.crud.entity.Product;
+import com.example.crud.exception.BadRequestException;
+import com.example.crud.exception.ResourceNotFoundException;
+import com.example.crud.mapper.imp.ProductMapper;
+import com.example.crud.repository.ReactiveProductRepository;
+import com.example.crud.search.ProductNameIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+class ReactiveProductServiceTest {
+
+    @Mock
+    private ReactiveProductRepository reactiveProductRepository;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private ProductNameIndex productNameIndex;
+
+    @Spy
+    private ProductMapper productMapper = new ProductMapper();
+
+    @InjectMocks
+    private ReactiveProductService reactiveProductService;
+
+    private AutoCloseable closeable;
+
+    private final Product product1 = new Product(1L, "Product 1", 1.0f, LocalDate.now());
+    private final Product product2 = new Product(2L, "Product 2", 2.0f, LocalDate.now());
+
+    @BeforeEach
+    public void setUp() {
+        closeable = MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        closeable.close();
+    }
+
+    @Test
+    void getProductById_NotFound() {
+        when(reactiveProductRepository.findById(1L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(reactiveProductService.getProductById(1L))
+                .verifyError(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void getAllProducts_IsBoundedByTheSubscriberDemand() {
+        when(reactiveProductRepository.findAll()).thenReturn(Flux.just(product1, product2));
+
+        StepVerifier.create(reactiveProductService.getAllProducts().map(ProductDTO::name), 1)
+                .expectNext("Product 1")
+                .thenRequest(1)
+                .expectNext("Product 2")
+                .verifyComplete();
+    }
+
+    @Test
+    void searchProducts_ReadsEveryIndexPageInOrder() {
+        when(productNameIndex.search("product", true, null, KeysetPages.MAX_PAGE_SIZE))
+                .thenReturn(new ProductNameIndex.Page(List.of(2L, 3L), "next"));
+        when(productNameIndex.search("product", true, "next", KeysetPages.MAX_PAGE_SIZE))
+                .thenReturn(new ProductNameIndex.Page(List.of(1L), null));
+        when(reactiveProductRepository.findAllById(List.of(2L, 3L))).thenReturn(Flux.just(product2)); // 3 was deleted
+        when(reactiveProductRepository.findAllById(List.of(1L))).thenReturn(Flux.just(product1));
+
+        StepVerifier.create(reactiveProductService.searchProducts("product", true).map(ProductDTO::name))
+                .expectNext("Product 2", "Product 1")
+                .verifyComplete();
+    }
+
+    @Test
+    void searchProducts_BlankQuery() {
+        StepVerifier.create(reactiveProductService.searchProducts(" ", true))
+                .verifyError(BadRequestException.class);
+        verifyNoInteractions(productNameIndex);
+    }
+
+    @Test
+    void updateProduct_DelegatesToTheBlockingService() {
+        ProductDTO productDTO = new ProductDTO("Updated", 3.0f, LocalDate.now());
+        when(productService.updateProduct(1L, productDTO)).thenReturn(productDTO);
+
+        StepVerifier.create(reactiveProductService.updateProduct(1L, productDTO))
+                .expectNext(productDTO)
+                .verifyComplete();
+    }
+
+    @Test
+    void deleteProduct_PropagatesNotFound() {
+        doThrow(new ResourceNotFoundException("Product not found")).when(productService).deleteProduct(1L);
+
+        StepVerifier.create(reactiveProductService.deleteProduct(1L))
+                .verifyError(ResourceNotFoundException.class);
+    }
+}
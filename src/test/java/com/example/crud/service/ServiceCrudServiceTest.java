@@ -0,0 +1,208 @@
+package com.example.crud.service;
+
+import com.example.crud.config.CacheConfig;
+import com.example.crud.dto.PageDTO;
+import com.example.crud.dto.ServiceDTO;
+import com.example.crud.entity.Service;
+import com.example.crud.exception.BadRequestException;
+import com.example.crud.exception.PartialBatchException;
+import com.example.crud.exception.ResourceNotFoundException;
+import com.example.crud.mapper.imp.ServiceMapper;
+import com.example.crud.repository.IServiceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+// The generic engine against H2, each service call commits on its own.
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ServiceCrudService.class, ServiceMapper.class})
+class ServiceCrudServiceTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(CacheConfig.SERVICES_BY_ID);
+        }
+    }
+
+    @Autowired
+    private ServiceCrudService serviceCrudService;
+
+    @Autowired
+    private IServiceRepository serviceRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @SpyBean
+    private ServiceMapper serviceMapper;
+
+    private final ServiceDTO service = new ServiceDTO("Service 1", 10.0f, LocalDate.of(2024, 9, 1));
+
+    @AfterEach
+    void tearDown() {
+        serviceRepository.deleteAllInBatch();
+        cacheManager.getCache(CacheConfig.SERVICES_BY_ID).clear();
+    }
+
+    private Long createAndGetId(ServiceDTO dto) {
+        serviceCrudService.create(dto);
+        return serviceRepository.findAll().stream()
+                .filter(saved -> saved.getName().equals(dto.name()))
+                .map(Service::getId).findFirst().orElseThrow();
+    }
+
+    @Test
+    void getPage_WalksEveryServiceInIdOrder() {
+        for (int i = 1; i <= 5; i++)
+            serviceCrudService.create(new ServiceDTO("Service " + i, i, LocalDate.now()));
+
+        PageDTO<ServiceDTO> first = serviceCrudService.getPage(null, 2);
+        PageDTO<ServiceDTO> second = serviceCrudService.getPage(first.nextCursor(), 2);
+        PageDTO<ServiceDTO> last = serviceCrudService.getPage(second.nextCursor(), 2);
+
+        assertEquals(List.of("Service 1", "Service 2"), first.items().stream().map(ServiceDTO::name).toList());
+        assertEquals(List.of("Service 3", "Service 4"), second.items().stream().map(ServiceDTO::name).toList());
+        assertEquals(List.of("Service 5"), last.items().stream().map(ServiceDTO::name).toList());
+        assertNull(last.nextCursor());
+    }
+
+    @Test
+    void getById_IsServedFromTheCacheOnceRead() {
+        Long id = createAndGetId(service);
+
+        assertEquals(Optional.of(service), serviceCrudService.getById(id));
+        serviceRepository.deleteAllInBatch(); // behind the service's back
+
+        assertEquals(Optional.of(service), serviceCrudService.getById(id));
+        assertEquals(Optional.empty(), serviceCrudService.getById(id + 1000));
+    }
+
+    @Test
+    void update_ReplacesTheServiceAndEvictsIt() {
+        Long id = createAndGetId(service);
+        serviceCrudService.getById(id);
+
+        ServiceDTO updated = new ServiceDTO("Updated", 20.0f, LocalDate.of(2024, 10, 1));
+        assertEquals(updated, serviceCrudService.update(id, updated));
+
+        assertEquals(Optional.of(updated), serviceCrudService.getById(id));
+        assertEquals(1, serviceRepository.count());
+    }
+
+    @Test
+    void getById_DoesNotCacheALoadThatAnUpdateOvertook() throws Exception {
+        Long id = createAndGetId(service);
+        Thread testThread = Thread.currentThread();
+        CountDownLatch read = new CountDownLatch(1);
+        CountDownLatch updated = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            if (Thread.currentThread() != testThread) { // the row was read, the update commits before it is cached
+                read.countDown();
+                updated.await(5, TimeUnit.SECONDS);
+            }
+            return invocation.callRealMethod();
+        }).when(serviceMapper).toDto(any(Service.class));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Optional<ServiceDTO>> slowRead = executor.submit(() -> serviceCrudService.getById(id));
+            assertTrue(read.await(5, TimeUnit.SECONDS));
+            ServiceDTO updatedService = new ServiceDTO("Updated", 20.0f, LocalDate.of(2024, 10, 1));
+            serviceCrudService.update(id, updatedService);
+            updated.countDown();
+
+            assertEquals(Optional.of(service), slowRead.get(5, TimeUnit.SECONDS));
+            assertNull(cacheManager.getCache(CacheConfig.SERVICES_BY_ID).get(id));
+            assertEquals(Optional.of(updatedService), serviceCrudService.getById(id));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void update_Throws_When_Missing() {
+        assertThrows(ResourceNotFoundException.class, () -> serviceCrudService.update(1000L, service));
+        assertEquals(0, serviceRepository.count());
+    }
+
+    @Test
+    void delete_RemovesTheServiceAndEvictsIt() {
+        Long id = createAndGetId(service);
+        serviceCrudService.getById(id);
+
+        serviceCrudService.delete(id);
+
+        assertEquals(Optional.empty(), serviceCrudService.getById(id));
+        assertThrows(ResourceNotFoundException.class, () -> serviceCrudService.delete(id));
+    }
+
+    @Test
+    void createAllAndDeleteAll_ReportAStatusPerItem() {
+        List<Integer> created = serviceCrudService.createAll(Arrays.asList(service, null,
+                new ServiceDTO("Service 2", 1.0f, LocalDate.now())).iterator());
+        assertEquals(List.of(201, 400, 201), created);
+
+        List<Long> ids = serviceRepository.findAll().stream().map(Service::getId).toList();
+        List<Integer> deleted = serviceCrudService.deleteAll(Arrays.asList(ids.get(0), null, -1L).iterator());
+
+        assertEquals(List.of(204, 400, 404), deleted);
+        assertEquals(1, serviceRepository.count());
+    }
+
+    @Test
+    void deleteAll_EvictsTheWrittenItems_When_TheBodyFailsLater() {
+        Long id = createAndGetId(service);
+        serviceCrudService.getById(id);
+        Iterator<Long> body = new Iterator<>() {
+            private boolean read;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Long next() {
+                if (read)
+                    throw new BadRequestException("Malformed JSON at element 1");
+                read = true;
+                return id;
+            }
+        };
+
+        PartialBatchException e = assertThrows(PartialBatchException.class, () -> serviceCrudService.deleteAll(body));
+
+        assertEquals(List.of(204), e.getStatuses());
+        assertEquals(Optional.empty(), serviceCrudService.getById(id));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.crud.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTest {
+
+    @Test
+    void readRecord_HandlesQuotesLineBreaksAndNulls() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a,\"b,c\",\"say \"\"hi\"\"\"\r\n,\"\",\"two\nlines\"\nlast"), 100);
+
+        assertEquals(List.of("a", "b,c", "say \"hi\""), csv.readRecord());
+        assertEquals(1, csv.recordLine());
+        assertEquals(Arrays.asList(null, "", "two\nlines"), csv.readRecord());
+        assertEquals(2, csv.recordLine());
+        assertEquals(List.of("last"), csv.readRecord());
+        assertEquals(4, csv.recordLine());
+        assertNull(csv.readRecord());
+    }
+
+    @Test
+    void readRecord_RejectsLongRecordAndGoesOn() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("0123456789,x\n\"quoted, and long\"\nok\n"), 10);
+
+        assertThrows(IllegalArgumentException.class, csv::readRecord);
+        assertThrows(IllegalArgumentException.class, csv::readRecord);
+        assertEquals(List.of("ok"), csv.readRecord());
+        assertEquals(3, csv.recordLine());
+    }
+
+    @Test
+    void readRecord_RejectsUnterminatedQuote() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a\n\"open,\nb"), 100);
+
+        assertEquals(List.of("a"), csv.readRecord());
+        assertThrows(IllegalArgumentException.class, csv::readRecord);
+        assertNull(csv.readRecord());
+    }
+}
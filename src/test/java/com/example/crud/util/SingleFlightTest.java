@@ -0,0 +1,116 @@
+package com.example.crud.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>("test", 2);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    private String blockingLoad(String value) {
+        loads.incrementAndGet();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    private void awaitInFlight(int expected) throws InterruptedException {
+        for (int i = 0; i < 500 && singleFlight.inFlight() != expected; i++)
+            Thread.sleep(10);
+        assertEquals(expected, singleFlight.inFlight());
+    }
+
+    @Test
+    void concurrentCallsForTheSameKey_shareOneLoad() throws Exception {
+        List<Future<String>> results = new ArrayList<>();
+        results.add(executor.submit(() -> singleFlight.execute("a", () -> blockingLoad("value"))));
+        awaitInFlight(1);
+        for (int i = 0; i < 20; i++)
+            results.add(executor.submit(() -> singleFlight.execute("a", () -> blockingLoad("other"))));
+        Thread.sleep(50);
+
+        release.countDown();
+        for (Future<String> result : results)
+            assertEquals("value", result.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void theLoadersExceptionReachesEveryCaller() throws Exception {
+        Future<String> leader = executor.submit(() -> singleFlight.execute("a", () -> {
+            blockingLoad(null);
+            throw new IllegalStateException("down");
+        }));
+        awaitInFlight(1);
+        Future<String> follower = executor.submit(() -> singleFlight.execute("a", () -> "unused"));
+        Thread.sleep(50);
+
+        release.countDown();
+        for (Future<String> call : List.of(leader, follower)) {
+            Exception e = assertThrows(Exception.class, () -> call.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+        assertEquals("fresh", singleFlight.execute("a", () -> "fresh"));
+    }
+
+    @Test
+    void pastMaxInFlight_callersLoadOnTheirOwn() throws Exception {
+        executor.submit(() -> singleFlight.execute("a", () -> blockingLoad("a")));
+        executor.submit(() -> singleFlight.execute("b", () -> blockingLoad("b")));
+        awaitInFlight(2);
+
+        assertEquals("c", singleFlight.execute("c", () -> "c"));
+        assertEquals(2, singleFlight.inFlight());
+    }
+
+    @Test
+    void forget_makesLaterCallersStartANewLoad() throws Exception {
+        Future<String> before = executor.submit(() -> singleFlight.execute("a", () -> blockingLoad("old")));
+        awaitInFlight(1);
+
+        singleFlight.forget("a");
+        assertEquals("new", singleFlight.execute("a", () -> "new"));
+
+        release.countDown();
+        assertEquals("old", before.get(5, TimeUnit.SECONDS));
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void publishesCallOutcomes() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        singleFlight.bindTo(registry);
+
+        singleFlight.execute("a", () -> "a");
+        singleFlight.execute("b", () -> "b");
+
+        assertEquals(2, registry.get("singleflight.calls").tag("name", "test").tag("outcome", "executed").functionCounter().count());
+        assertEquals(0, registry.get("singleflight.calls").tag("outcome", "coalesced").functionCounter().count());
+        assertEquals(2, registry.get("singleflight.max.in.flight").gauge().value());
+    }
+}